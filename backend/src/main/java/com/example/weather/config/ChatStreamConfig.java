@@ -0,0 +1,35 @@
+package com.example.weather.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ChatStreamConfig {
+
+    // SSE 스트리밍 전용 풀: LLM 응답을 기다리는 동안 Tomcat 요청 스레드나 공용 ForkJoinPool을 점유하지 않도록 분리
+    @Bean
+    public ThreadPoolTaskExecutor chatStreamExecutor(
+            @Value("${chat.stream.pool-size:16}") int poolSize,
+            @Value("${chat.stream.queue-capacity:64}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("chat-stream-");
+        return executor;
+    }
+
+    // Executor 빈이 하나라도 있으면 Boot가 기본 applicationTaskExecutor를 만들지 않는다.
+    // MVC 비동기 처리와 @Async가 채팅 풀이나 SimpleAsyncTaskExecutor로 가지 않도록 Boot와 같은 설정(spring.task.execution.*)으로 직접 등록
+    @Lazy
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, "taskExecutor"})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.weather.config;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class LlmHttpConfig {
+
+    // LLM 서버는 한 곳이므로 전체/경로별 최대 연결 수를 같게 둔다
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager llmConnectionManager(
+            @Value("${huggingface.http.max-connections:16}") int maxConnections,
+            @Value("${huggingface.http.connect-timeout-ms:3000}") long connectTimeoutMs,
+            @Value("${huggingface.http.read-timeout-ms:60000}") long readTimeoutMs,
+            @Value("${huggingface.http.time-to-live-ms:300000}") long timeToLiveMs
+    ) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setTimeToLive(TimeValue.ofMilliseconds(timeToLiveMs))
+                        .build())
+                .build();
+    }
+
+    /**
+     * HuggingFaceClient 전용 HTTP 클라이언트. 연결을 재사용(keep-alive)하고, 유휴 연결은 주기적으로 정리한다.
+     * read-timeout은 응답 대기 및 스트림 토큰 사이 최대 간격, pool-timeout은 빈 연결을 기다리는 최대 시간.
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient llmHttpClient(
+            PoolingHttpClientConnectionManager llmConnectionManager,
+            @Value("${huggingface.http.read-timeout-ms:60000}") long readTimeoutMs,
+            @Value("${huggingface.http.pool-timeout-ms:2000}") long poolTimeoutMs,
+            @Value("${huggingface.http.keep-alive-ms:60000}") long keepAliveMs,
+            @Value("${huggingface.http.idle-timeout-ms:30000}") long idleTimeoutMs
+    ) {
+        return HttpClients.custom()
+                .setConnectionManager(llmConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setDefaultKeepAlive(keepAliveMs, TimeUnit.MILLISECONDS)
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleTimeoutMs))
+                .build();
+    }
+}
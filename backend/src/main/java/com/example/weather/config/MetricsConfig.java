@@ -0,0 +1,100 @@
+package com.example.weather.config;
+
+import com.example.weather.service.ChatSummaryStore;
+import com.example.weather.service.KmaClient;
+import com.example.weather.service.LlmAdmission;
+import com.example.weather.service.LlmAnswerCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder kmaClientMetrics(KmaClient kmaClient) {
+        return registry -> {
+            FunctionCounter.builder("kma.cache.coalesced", kmaClient, KmaClient::coalescedLoadCount)
+                    .description("진행 중인 KMA 호출에 합류한 캐시 미스 수")
+                    .register(registry);
+            FunctionCounter.builder("kma.cache.stale.served", kmaClient, KmaClient::staleServedCount)
+                    .description("최신 자료 대신 직전 자료를 제공한 횟수")
+                    .register(registry);
+            Gauge.builder("kma.circuit.state", kmaClient, KmaClient::circuitState)
+                    .description("KMA 차단기 상태(0 정상, 1 시험 호출, 2 차단)")
+                    .register(registry);
+            Gauge.builder("kma.cache.entries", kmaClient, KmaClient::cacheEntryCount)
+                    .description("KMA 예보 캐시 항목 수")
+                    .register(registry);
+            Gauge.builder("kma.cache.bytes", kmaClient, KmaClient::cacheEstimatedBytes)
+                    .description("KMA 예보 캐시 추정 메모리(바이트)")
+                    .baseUnit("bytes")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder chatAnswerCacheMetrics(LlmAnswerCache answers, ChatSummaryStore summaries) {
+        return registry -> {
+            FunctionCounter.builder("chat.answer-cache.hits", answers, LlmAnswerCache::hitCount)
+                    .description("LLM 호출 없이 캐시된 답변을 준 횟수")
+                    .register(registry);
+            FunctionCounter.builder("chat.answer-cache.misses", answers, LlmAnswerCache::missCount)
+                    .description("답변 캐시 미스 수")
+                    .register(registry);
+            Gauge.builder("chat.answer-cache.entries", answers, LlmAnswerCache::entryCount)
+                    .description("LLM 답변 캐시 항목 수")
+                    .register(registry);
+            FunctionCounter.builder("chat.summary.hits", summaries, ChatSummaryStore::hitCount)
+                    .description("미리 만든 요약으로 답한 횟수")
+                    .register(registry);
+            Gauge.builder("chat.summary.entries", summaries, ChatSummaryStore::entryCount)
+                    .description("미리 만든 요약 수")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder llmHttpPoolMetrics(PoolingHttpClientConnectionManager llmConnectionManager) {
+        return registry -> {
+            Gauge.builder("llm.http.pool.leased", llmConnectionManager, m -> m.getTotalStats().getLeased())
+                    .description("LLM 호출에 사용 중인 연결 수")
+                    .register(registry);
+            Gauge.builder("llm.http.pool.available", llmConnectionManager, m -> m.getTotalStats().getAvailable())
+                    .description("재사용 대기 중인 유휴 연결 수")
+                    .register(registry);
+            Gauge.builder("llm.http.pool.pending", llmConnectionManager, m -> m.getTotalStats().getPending())
+                    .description("빈 연결을 기다리는 요청 수")
+                    .register(registry);
+            Gauge.builder("llm.http.pool.max", llmConnectionManager, m -> m.getTotalStats().getMax())
+                    .description("최대 연결 수")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder llmAdmissionMetrics(LlmAdmission admission) {
+        return registry -> {
+            Gauge.builder("llm.admission.in-flight", admission, LlmAdmission::inFlight)
+                    .description("진행 중인 LLM 생성 수")
+                    .register(registry);
+            Gauge.builder("llm.admission.queued", admission, LlmAdmission::queued)
+                    .description("LLM 자리를 기다리는 요청 수")
+                    .register(registry);
+            FunctionCounter.builder("llm.admission.admitted", admission, LlmAdmission::admittedCount)
+                    .description("LLM 호출이 허용된 요청 수")
+                    .register(registry);
+            FunctionCounter.builder("llm.admission.rejected", admission, LlmAdmission::rejectedFullCount)
+                    .description("대기열이 가득 차 거절된 요청 수")
+                    .tag("reason", "queue-full")
+                    .register(registry);
+            FunctionCounter.builder("llm.admission.rejected", admission, LlmAdmission::rejectedTimeoutCount)
+                    .description("대기 시간 초과로 거절된 요청 수")
+                    .tag("reason", "timeout")
+                    .register(registry);
+        };
+    }
+}
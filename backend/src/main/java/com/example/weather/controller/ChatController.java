@@ -4,12 +4,13 @@ import com.example.weather.dto.ChatDtos;
 import com.example.weather.service.ChatService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.nio.charset.StandardCharsets;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/chat")
@@ -17,6 +18,10 @@ import java.util.concurrent.CompletableFuture;
 public class ChatController {
 
     private final ChatService chatService;
+    private final ThreadPoolTaskExecutor chatStreamExecutor;
+
+    @Value("${chat.stream.timeout-ms:120000}")
+    private long streamTimeoutMs;
 
     @PostMapping
     public ResponseEntity<ChatDtos.ChatResponse> chat(@Valid @RequestBody ChatDtos.ChatRequest req) {
@@ -25,28 +30,14 @@ public class ChatController {
 
     @PostMapping(value = "/stream", produces = "text/event-stream")
     public SseEmitter stream(@Valid @RequestBody ChatDtos.ChatRequest req) {
-        SseEmitter emitter = new SseEmitter(0L);
-        CompletableFuture.runAsync(() -> {
-            try {
-                String full = chatService.chat(req).content();
-                if (full == null) full = "";
-                // chunk by ~80 chars
-                byte[] bytes = full.getBytes(StandardCharsets.UTF_8);
-                int idx = 0;
-                int step = 240; // ~80 chars in UTF-8 average
-                while (idx < bytes.length) {
-                    int end = Math.min(idx + step, bytes.length);
-                    String piece = new String(bytes, idx, end - idx, StandardCharsets.UTF_8);
-                    emitter.send(SseEmitter.event().data(piece));
-                    idx = end;
-                }
-                emitter.send(SseEmitter.event().data("[DONE]"));
-                emitter.complete();
-            } catch (Exception e) {
-                try { emitter.send(SseEmitter.event().data("[ERROR] " + e.getMessage())); } catch (Exception ignored) {}
-                emitter.completeWithError(e);
-            }
-        });
+        long startNanos = System.nanoTime();
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        try {
+            chatStreamExecutor.execute(() -> chatService.stream(req, emitter, startNanos));
+        } catch (RejectedExecutionException e) {
+            try { emitter.send(SseEmitter.event().data("[ERROR] 요청이 많아 잠시 후 다시 시도해 주세요.")); } catch (Exception ignored) {}
+            emitter.complete();
+        }
         return emitter;
     }
 }
@@ -1,14 +1,26 @@
 package com.example.weather.controller;
 
 import com.example.weather.dto.WeatherDtos;
+import com.example.weather.service.ForecastPayloadCache;
 import com.example.weather.service.WeatherService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import jakarta.validation.Valid;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
 @RestController
 @RequestMapping("/api/weather")
 @RequiredArgsConstructor
@@ -17,22 +29,95 @@ public class WeatherController {
     private final WeatherService weatherService;
 
     @GetMapping("/current")
-    public ResponseEntity<WeatherDtos.CurrentWeatherResponse> current(
+    public CompletableFuture<ResponseEntity<WeatherDtos.CurrentWeatherResponse>> current(
             @RequestParam(value = "lat", required = false) Double lat,
             @RequestParam(value = "lon", required = false) Double lon,
             @RequestParam(value = "city", required = false) String city,
-            @RequestParam(value = "nocache", required = false, defaultValue = "false") boolean nocache
+            @RequestParam(value = "nocache", required = false, defaultValue = "false") boolean nocache,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
-        return ResponseEntity.ok(weatherService.getCurrent(lat, lon, city, nocache));
+        if (nocache) {
+            return weatherService.getCurrentAsync(lat, lon, city, true)
+                    .thenApply(body -> ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(body));
+        }
+        WeatherService.CacheTag tag = weatherService.currentCacheTag(lat, lon, city);
+        if (tag.matches(ifNoneMatch)) return CompletableFuture.completedFuture(notModified(tag, false));
+        return weatherService.getCurrentAsync(lat, lon, city, false)
+                .thenApply(body -> cached(tag, body.baseTime(), body.stale(), body));
     }
 
     @GetMapping("/forecast")
-    public ResponseEntity<WeatherDtos.ForecastResponse> forecast(
+    public CompletableFuture<ResponseEntity<byte[]>> forecast(
             @RequestParam(value = "lat", required = false) Double lat,
             @RequestParam(value = "lon", required = false) Double lon,
             @RequestParam(value = "city", required = false) String city,
-            @RequestParam(value = "nocache", required = false, defaultValue = "false") boolean nocache
+            @RequestParam(value = "nocache", required = false, defaultValue = "false") boolean nocache,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
     ) {
-        return ResponseEntity.ok(weatherService.getForecast(lat, lon, city, nocache));
+        // 직렬화·압축해 둔 바이트를 그대로 쓴다(server.compression은 Content-Encoding이 있으면 건너뜀)
+        boolean gzip = acceptsGzip(acceptEncoding);
+        if (nocache) {
+            return weatherService.getForecastPayloadAsync(lat, lon, city, true)
+                    .thenApply(p -> ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(p))
+                    .thenApply(r -> encoded(r, gzip));
+        }
+        WeatherService.CacheTag tag = weatherService.forecastCacheTag(lat, lon, city).forEncoding(gzip ? "gzip" : null);
+        if (tag.matches(ifNoneMatch)) return CompletableFuture.completedFuture(notModified(tag, true));
+        return weatherService.getForecastPayloadAsync(lat, lon, city, false)
+                .thenApply(p -> encoded(cached(tag, p.baseTime(), p.stale(), p), gzip));
+    }
+
+    @PostMapping("/batch")
+    public CompletableFuture<ResponseEntity<WeatherDtos.BatchResponse>> batch(@Valid @RequestBody WeatherDtos.BatchRequest req) {
+        return weatherService.getCurrentBatchAsync(req.points()).thenApply(ResponseEntity::ok);
+    }
+
+    // 같은 기준시각 동안 응답이 바뀌지 않으므로 다음 발표 시각까지 캐시 허용.
+    // 직전 자료(stale)로 응답한 경우엔 곧 바뀌므로 ETag 없이 재검증을 요구한다.
+    private static <T> ResponseEntity<T> cached(WeatherService.CacheTag tag, String bodyBaseTime, boolean stale, T body) {
+        if (stale || !tag.baseTime().equals(bodyBaseTime)) {
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(body);
+        }
+        return ResponseEntity.ok()
+                .eTag(tag.etag())
+                .cacheControl(CacheControl.maxAge(tag.maxAgeSeconds(), TimeUnit.SECONDS).cachePublic())
+                .body(body);
+    }
+
+    // 304에도 200과 같은 Vary를 실어 공유 캐시가 인코딩별 응답을 섞지 않게 한다
+    private static <T> ResponseEntity<T> notModified(WeatherService.CacheTag tag, boolean varyEncoding) {
+        ResponseEntity.BodyBuilder b = ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(tag.etag())
+                .cacheControl(CacheControl.maxAge(tag.maxAgeSeconds(), TimeUnit.SECONDS).cachePublic());
+        if (varyEncoding) b.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        return b.build();
+    }
+
+    private static ResponseEntity<byte[]> encoded(ResponseEntity<ForecastPayloadCache.Payload> res, boolean gzip) {
+        ForecastPayloadCache.Payload p = res.getBody();
+        ResponseEntity.BodyBuilder b = ResponseEntity.status(res.getStatusCode())
+                .headers(res.getHeaders())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return b.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(p.gzip());
+        }
+        return b.body(p.json());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] kv = part.trim().split(";");
+            String coding = kv[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) continue;
+            for (int i = 1; i < kv.length; i++) {
+                String param = kv[i].trim().replace(" ", "");
+                if (param.equals("q=0") || param.matches("q=0\\.0*")) return false;
+            }
+            return true;
+        }
+        return false;
     }
 }
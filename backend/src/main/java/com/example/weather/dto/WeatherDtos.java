@@ -1,12 +1,21 @@
 package com.example.weather.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
 public class WeatherDtos {
+    // baseTime: 자료의 KMA 기준시각(yyyyMMddHHmm), stale: 최신 발표분을 아직 받지 못해 직전 자료를 제공 중
     public record CurrentWeatherResponse(
             Double temperature,
             Double precipitation,
-            String sky
+            String sky,
+            String baseTime,
+            boolean stale
     ) {}
 
+    // epochHour: dateTime을 미리 숫자로 바꾼 KST epoch-hour(응답에는 포함하지 않음)
     public record ForecastEntry(
             String dateTime,
             Double temperature,
@@ -14,10 +23,37 @@ public class WeatherDtos {
             String sky,
             Integer pop,
             Integer reh,
-            Double wsd
+            Double wsd,
+            @JsonIgnore int epochHour
     ) {}
 
+    // items는 시각 오름차순
     public record ForecastResponse(
-            java.util.List<ForecastEntry> items
+            java.util.List<ForecastEntry> items,
+            String baseTime,
+            boolean stale
+    ) {}
+
+    public record BatchPoint(
+            @NotNull Double lat,
+            @NotNull Double lon
+    ) {}
+
+    public record BatchRequest(
+            @NotEmpty java.util.List<@Valid @NotNull BatchPoint> points
+    ) {}
+
+    // 요청 순서와 동일한 순서로 반환. 실패한 지점은 current=null, error에 사유
+    public record BatchItem(
+            Double lat,
+            Double lon,
+            Integer nx,
+            Integer ny,
+            CurrentWeatherResponse current,
+            String error
+    ) {}
+
+    public record BatchResponse(
+            java.util.List<BatchItem> items
     ) {}
 }
@@ -22,6 +22,12 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         this.jwtProvider = jwtProvider;
     }
 
+    // 세션 없이(STATELESS) 인증하므로 CompletableFuture/SseEmitter 응답의 async 디스패치에서도 토큰을 다시 확인해야 한다
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -0,0 +1,96 @@
+package com.example.weather.service;
+
+import com.example.weather.dto.WeatherDtos;
+import com.example.weather.util.KmaGridConverter;
+import com.example.weather.util.KmaPublishSchedule;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 채팅 요청 하나에 대한 해석 결과. 마지막 사용자 메시지, 의도, 위치/격자, 날씨 스냅샷을 한 번만 구해
+ * 템플릿 단계와 LLM 프롬프트 단계가 함께 쓴다. 단계별 소요 시간도 여기에 쌓인다.
+ */
+public final class ChatContext {
+
+    public enum Stage {
+        PARSE, LOCATE, WEATHER, TEMPLATE, QUEUE, LLM;
+
+        final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    private final String lastUser;
+    private final IntentParser.Analysis analysis;
+    private final boolean background;
+    private final LocalDateTime resolvedAt = KmaPublishSchedule.now();
+    private final Map<Stage, Long> stageNanos = new EnumMap<>(Stage.class);
+
+    // 위치: 지명 사전 좌표가 요청 좌표보다 우선(WeatherService와 같은 규칙). 못 구하면 null
+    private Double lat, lon;
+    private KmaGridConverter.Grid grid;
+
+    // 날씨 스냅샷: wantCurrent면 실황, 아니면 예보. 조회 실패 시 weatherFailed
+    private WeatherDtos.CurrentWeatherResponse current;
+    private WeatherDtos.ForecastResponse forecast;
+    private int forecastIndex = -1;
+    private KmaPublishSchedule.BaseTime base;
+    private boolean weatherFailed;
+
+    ChatContext(String lastUser, IntentParser.Analysis analysis, boolean background) {
+        this.lastUser = lastUser;
+        this.analysis = analysis;
+        this.background = background;
+    }
+
+    public String lastUser() { return lastUser; }
+    public IntentParser.Analysis analysis() { return analysis; }
+    /** 미리 만드는 요약 같은 백그라운드 작업. 조회 수(hot cell)와 chat.stage 지표에 남기지 않는다 */
+    public boolean background() { return background; }
+    /** 해석 시각(KST). 예보에서 파생한 현재 날씨는 이 시각의 행이다 */
+    public LocalDateTime resolvedAt() { return resolvedAt; }
+    public String city() { return analysis.city(); }
+    public boolean wantsWeather() { return analysis.wantForecast() || analysis.wantCurrent(); }
+    public Double lat() { return lat; }
+    public Double lon() { return lon; }
+    public KmaGridConverter.Grid grid() { return grid; }
+    public WeatherDtos.CurrentWeatherResponse current() { return current; }
+    public WeatherDtos.ForecastResponse forecast() { return forecast; }
+    public int forecastIndex() { return forecastIndex; }
+    public KmaPublishSchedule.BaseTime base() { return base; }
+    public boolean weatherFailed() { return weatherFailed; }
+    public boolean weatherStale() {
+        return current != null ? current.stale() : forecast != null && forecast.stale();
+    }
+
+    void located(double lat, double lon, KmaGridConverter.Grid grid) {
+        this.lat = lat;
+        this.lon = lon;
+        this.grid = grid;
+    }
+
+    void current(WeatherDtos.CurrentWeatherResponse cw, KmaPublishSchedule.BaseTime base) {
+        this.current = cw;
+        this.base = base;
+    }
+
+    void forecast(WeatherDtos.ForecastResponse fr, int index, KmaPublishSchedule.BaseTime base) {
+        this.forecast = fr;
+        this.forecastIndex = index;
+        this.base = base;
+    }
+
+    void markWeatherFailed() {
+        this.weatherFailed = true;
+    }
+
+    void elapsed(Stage stage, long nanos) {
+        stageNanos.merge(stage, nanos, Long::sum);
+    }
+
+    /** 단계별 소요 시간(나노초). 실행되지 않은 단계는 빠진다 */
+    public Map<Stage, Long> stageNanos() {
+        return stageNanos;
+    }
+}
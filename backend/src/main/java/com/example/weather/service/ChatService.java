@@ -2,11 +2,17 @@ package com.example.weather.service;
 
 import com.example.weather.dto.ChatDtos;
 import com.example.weather.dto.WeatherDtos;
+import com.example.weather.util.Gazetteer;
+import com.example.weather.util.KmaGridConverter;
+import com.example.weather.util.KmaPublishSchedule;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
@@ -16,131 +22,148 @@ public class ChatService {
 
     private final HuggingFaceClient hf;
     private final WeatherService weatherService;
+    private final LlmAnswerCache answers;
+    private final LlmAdmission admission;
+    private final ChatSummaryStore summaries;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${chat.llm.short-question-chars:40}")
+    private int shortQuestionChars;
+
+    @Value("${chat.pregenerate.background-wait-ms:30000}")
+    private long backgroundWaitMs;
+
+    private static final String OVERLOADED = "요청이 많아 잠시 후 다시 시도해 주세요.";
+    private static final String ASK_LOCATION = "도움을 드리려면 대략적인 위치(예: 서울)와 시점(현재/내일/주간)을 알려주세요.";
 
     public ChatDtos.ChatResponse chat(ChatDtos.ChatRequest req) {
+        ChatContext ctx = resolve(req, false);
         // deterministic fallback: if insufficient info, do not call LLM
-        String lastUser = req.messages().stream()
-                .filter(m -> "user".equalsIgnoreCase(m.role()))
-                .reduce((a,b) -> b)
-                .map(ChatDtos.Message::content)
-                .orElse("");
-        String inferredCity = IntentParser.inferCity(req.city(), lastUser);
-        boolean wantForecast = IntentParser.containsAny(lastUser, "예보","내일","모레","주간","forecast");
-        boolean wantCurrent = IntentParser.containsAny(lastUser, "현재","지금","오늘","now","current");
-        if ((wantForecast || wantCurrent) && inferredCity == null && req.lat() == null && req.lon() == null) {
-            return new ChatDtos.ChatResponse("도움을 드리려면 대략적인 위치(예: 서울)와 시점(현재/내일/주간)을 알려주세요.");
-        }
-
-        if (wantCurrent || wantForecast) {
-            try {
-                if (wantCurrent) {
-                    Double lat = req.lat(), lon = req.lon();
-                    if ((lat == null || lon == null) && inferredCity != null) {
-                        double[] c = GeoService.geocode(inferredCity);
-                        if (c != null) { lat = c[0]; lon = c[1]; }
-                    }
-                    WeatherDtos.CurrentWeatherResponse cw = weatherService.getCurrent(lat, lon, inferredCity, false);
-                    String out = NlgFormatter.formatCurrent(cw, inferredCity);
-                    out = TextSanitizer.sanitize(out);
-                    if (out != null && !out.isBlank()) return new ChatDtos.ChatResponse(out);
-                } else {
-                    Double lat = req.lat(), lon = req.lon();
-                    if ((lat == null || lon == null) && inferredCity != null) {
-                        double[] c = GeoService.geocode(inferredCity);
-                        if (c != null) { lat = c[0]; lon = c[1]; }
-                    }
-                    WeatherDtos.ForecastResponse fr = weatherService.getForecast(lat, lon, inferredCity, false);
-                    int idx = ForecastSelector.chooseIndex(fr, lastUser);
-                    String out = NlgFormatter.formatForecast(fr, inferredCity, lastUser, idx);
-                    out = TextSanitizer.sanitize(out);
-                    if (out != null && !out.isBlank()) return new ChatDtos.ChatResponse(out);
-                }
-            } catch (Exception ignored) { }
+        if (missingLocation(ctx, req)) {
+            return new ChatDtos.ChatResponse(ASK_LOCATION);
         }
 
-        String prompt = buildPromptWithTools(req);
+        // 템플릿 → 미리 만들어 둔 요약(템플릿으로 답할 수 없는 질문, 같은 질문 문장일 때만) 순
+        String templated = template(ctx);
+        if (templated != null) return new ChatDtos.ChatResponse(templated);
+
+        String summary = summaries.get(ctx);
+        if (summary != null) return new ChatDtos.ChatResponse(summary);
+
+        String data = toolSummary(ctx);
+        String cached = answers.get(ctx, data);
+        if (cached != null) return new ChatDtos.ChatResponse(cached);
+
+        String prompt = buildPromptWithTools(ctx, data);
+        LlmAdmission.Permit permit;
+        try {
+            permit = admit(ctx);
+        } catch (LlmAdmission.Rejected e) {
+            // 템플릿으로 답할 수 있는 질문은 이미 위에서 끝났으므로, 기다리게 하지 않고 바로 알린다
+            return new ChatDtos.ChatResponse(OVERLOADED);
+        }
+        long t0 = System.nanoTime();
         try {
             String out = hf.generate(prompt);
             out = TextSanitizer.sanitize(out);
-            if (out == null || out.isBlank()) out = "죄송해요, 지금은 답변을 생성할 수 없어요.";
+            if (out == null || out.isBlank()) return new ChatDtos.ChatResponse("죄송해요, 지금은 답변을 생성할 수 없어요.");
+            answers.put(ctx, data, out);
             return new ChatDtos.ChatResponse(out);
         } catch (RuntimeException e) {
             String msg = e.getMessage() != null ? e.getMessage() : "알 수 없는 오류";
             return new ChatDtos.ChatResponse("오류: " + msg);
+        } finally {
+            permit.close();
+            stage(ctx, ChatContext.Stage.LLM, t0);
         }
     }
 
     public void stream(ChatDtos.ChatRequest req, SseEmitter emitter) {
-        String lastUser = req.messages().stream()
-                .filter(m -> "user".equalsIgnoreCase(m.role()))
-                .reduce((a,b) -> b)
-                .map(ChatDtos.Message::content)
-                .orElse("");
-        String inferredCity = IntentParser.inferCity(req.city(), lastUser);
-        boolean wantForecast = IntentParser.containsAny(lastUser, "예보","내일","모레","주간","forecast");
-        boolean wantCurrent = IntentParser.containsAny(lastUser, "현재","지금","오늘","now","current");
-        if ((wantForecast || wantCurrent) && inferredCity == null && req.lat() == null && req.lon() == null) {
-            try {
-                emitter.send(SseEmitter.event().data("도움을 드리려면 대략적인 위치(예: 서울)와 시점(현재/내일/주간)을 알려주세요."));
-                emitter.send(SseEmitter.event().data("[DONE]"));
-                emitter.complete();
-                return;
-            } catch (Exception e) {
-                try { emitter.send(SseEmitter.event().data("[ERROR] " + e.getMessage())); } catch (Exception ignored) {}
-                emitter.completeWithError(e);
-                return;
-            }
+        stream(req, emitter, System.nanoTime());
+    }
+
+    /** startNanos: 요청 수신 시각. 첫 데이터 이벤트까지의 시간을 chat.stream.ttft로 기록한다 */
+    public void stream(ChatDtos.ChatRequest req, SseEmitter emitter, long startNanos) {
+        FirstToken ttft = new FirstToken(startNanos);
+        ChatContext ctx = resolve(req, false);
+        if (missingLocation(ctx, req)) {
+            sendOnce(emitter, ASK_LOCATION, ttft, "template");
+            return;
+        }
+        String templated = template(ctx);
+        if (templated != null) {
+            sendOnce(emitter, templated, ttft, "template");
+            return;
+        }
+        String summary = summaries.get(ctx);
+        if (summary != null) {
+            sendOnce(emitter, summary, ttft, "summary");
+            return;
         }
 
-        if (wantCurrent || wantForecast) {
-            try {
-                String out;
-                if (wantCurrent) {
-                    Double lat = req.lat(), lon = req.lon();
-                    if ((lat == null || lon == null) && inferredCity != null) {
-                        double[] c = GeoService.geocode(inferredCity);
-                        if (c != null) { lat = c[0]; lon = c[1]; }
-                    }
-                    WeatherDtos.CurrentWeatherResponse cw = weatherService.getCurrent(lat, lon, inferredCity, false);
-                    out = NlgFormatter.formatCurrent(cw, inferredCity);
-                } else {
-                    Double lat = req.lat(), lon = req.lon();
-                    if ((lat == null || lon == null) && inferredCity != null) {
-                        double[] c = GeoService.geocode(inferredCity);
-                        if (c != null) { lat = c[0]; lon = c[1]; }
-                    }
-                    WeatherDtos.ForecastResponse fr = weatherService.getForecast(lat, lon, inferredCity, false);
-                    int idx = ForecastSelector.chooseIndex(fr, lastUser);
-                    out = NlgFormatter.formatForecast(fr, inferredCity, lastUser, idx);
-                }
-                out = TextSanitizer.sanitize(out);
-                if (out != null && !out.isBlank()) {
-                    emitter.send(SseEmitter.event().data(out));
-                    emitter.send(SseEmitter.event().data("[DONE]"));
-                    emitter.complete();
-                    return;
-                }
-            } catch (Exception ignored) { }
+        String data = toolSummary(ctx);
+        String cached = answers.get(ctx, data);
+        if (cached != null) {
+            // 캐시된 답은 한 이벤트로 재생
+            sendOnce(emitter, cached, ttft, "cache");
+            return;
         }
-        String prompt = buildPromptWithTools(req);
+
+        String prompt = buildPromptWithTools(ctx, data);
+        LlmAdmission.Permit permit;
         try {
-            final StringBuilder buf = new StringBuilder();
-            final int[] sent = new int[]{0};
+            permit = admit(ctx);
+        } catch (LlmAdmission.Rejected e) {
+            try { emitter.send(SseEmitter.event().data("[ERROR] " + OVERLOADED)); } catch (Exception ignored) {}
+            emitter.complete();
+            return;
+        }
+        // 클라이언트가 끊기거나(전송 실패 포함) 시간이 초과되면 LLM 호출도 끊는다
+        HuggingFaceClient.Call call = new HuggingFaceClient.Call();
+        emitter.onCompletion(call::cancel);
+        emitter.onTimeout(call::cancel);
+        emitter.onError(e -> call.cancel());
+        long t0 = System.nanoTime();
+        try {
+            // 델타마다 새로 확정된 부분만 정리해 보낸다(누적 버퍼 전체를 매번 다시 정리하지 않음)
+            final TextSanitizer.Incremental sanitizer = TextSanitizer.incremental();
+            final StringBuilder answer = new StringBuilder();
             hf.streamChat(prompt, delta -> {
                 try {
                     if (delta == null) return;
-                    buf.append(delta);
-                    String cleaned = TextSanitizer.sanitize(buf.toString());
-                    if (cleaned == null) return;
-                    if (cleaned.length() > sent[0]) {
-                        String inc = cleaned.substring(sent[0]);
-                        sent[0] = cleaned.length();
-                        if (!inc.isBlank()) {
-                            emitter.send(SseEmitter.event().data(inc));
-                        }
+                    String inc = sanitizer.accept(delta);
+                    if (!inc.isEmpty()) {
+                        answer.append(inc);
+                        emitter.send(SseEmitter.event().data(inc));
+                        ttft.mark("llm");
                     }
-                } catch (Exception ignored) { }
-            });
+                } catch (Exception e) {
+                    call.cancel();
+                }
+            }, call);
+            String tail = sanitizer.finish();
+            if (!tail.isEmpty()) {
+                answer.append(tail);
+                emitter.send(SseEmitter.event().data(tail));
+                ttft.mark("llm");
+            }
+            if (!call.isCancelled()) answers.put(ctx, data, answer.toString());
+            emitter.send(SseEmitter.event().data("[DONE]"));
+            emitter.complete();
+        } catch (Exception e) {
+            try { emitter.send(SseEmitter.event().data("[ERROR] " + e.getMessage())); } catch (Exception ignored) {}
+            emitter.completeWithError(e);
+        } finally {
+            permit.close();
+            stage(ctx, ChatContext.Stage.LLM, t0);
+        }
+    }
+
+    // LLM 없이 만든 답을 한 이벤트로 보내고 스트림을 닫는다
+    private void sendOnce(SseEmitter emitter, String text, FirstToken ttft, String source) {
+        try {
+            emitter.send(SseEmitter.event().data(text));
+            ttft.mark(source);
             emitter.send(SseEmitter.event().data("[DONE]"));
             emitter.complete();
         } catch (Exception e) {
@@ -149,7 +172,130 @@ public class ChatService {
         }
     }
 
-    private String buildPromptWithTools(ChatDtos.ChatRequest req) {
+    /**
+     * 인기 지역 요약을 미리 만든다(ChatSummaryPregenerator). 지역명을 붙인 질문 문장("서울 지금 날씨 알려줘")으로
+     * 일반 요청과 같은 경로(의도→자료→프롬프트)를 거치므로, 같은 문장으로 물은 요청만 이 요약을 받는다.
+     * 템플릿으로 답할 수 있는 질문은 LLM을 부르지 않고 건너뛴다(요청 때도 템플릿이 먼저 답함).
+     * 대화 요청보다 낮은 우선순위로 LLM 자리를 얻는다. 저장했거나 이미 있으면 true.
+     */
+    boolean pregenerate(Gazetteer.Entry place, String question) {
+        ChatDtos.ChatRequest req = new ChatDtos.ChatRequest(
+                List.of(new ChatDtos.Message("user", place.displayName() + " " + question)), place.lat(), place.lon(), null);
+        ChatContext ctx = resolve(req, true);
+        if (ctx.grid() == null || ctx.weatherFailed() || ctx.weatherStale()) return false;
+        if (template(ctx) != null) return false;
+        if (summaries.contains(ctx)) return true;
+        String prompt = buildPromptWithTools(ctx, toolSummary(ctx));
+        String out;
+        try (LlmAdmission.Permit permit = admission.acquire(LlmAdmission.Priority.BACKGROUND, backgroundWaitMs)) {
+            out = TextSanitizer.sanitize(hf.generate(prompt));
+        }
+        if (out == null || out.isBlank()) return false;
+        summaries.put(ctx, out);
+        return true;
+    }
+
+    /**
+     * 요청당 한 번: 마지막 사용자 메시지 → 의도/지역 → 좌표·격자 → 날씨 스냅샷.
+     * 날씨 조회 실패는 예외 대신 컨텍스트에 표시해 두고, 프롬프트 단계가 "데이터 오류"로 알린다.
+     * background면 격자로 바로 조회해 조회 수(hot cell)를 남기지 않는다.
+     */
+    private ChatContext resolve(ChatDtos.ChatRequest req, boolean background) {
+        long t0 = System.nanoTime();
+        String lastUser = req.messages().stream()
+                .filter(m -> "user".equalsIgnoreCase(m.role()))
+                .reduce((a,b) -> b)
+                .map(ChatDtos.Message::content)
+                .orElse("");
+        IntentParser.Analysis analysis = IntentParser.analyze(req.city(), lastUser);
+        ChatContext ctx = new ChatContext(lastUser, analysis, background);
+        stage(ctx, ChatContext.Stage.PARSE, t0);
+        if (!ctx.wantsWeather() || missingLocation(ctx, req)) return ctx;
+
+        // 지명 사전 좌표가 있으면 우선, 없으면 요청 좌표(WeatherService.resolveLocation과 같은 규칙)
+        long t1 = System.nanoTime();
+        Gazetteer.Entry place = analysis.place();
+        if (place != null) {
+            ctx.located(place.lat(), place.lon(), place.grid());
+        } else if (req.lat() != null && req.lon() != null) {
+            ctx.located(req.lat(), req.lon(), KmaGridConverter.toGrid(req.lat(), req.lon()));
+        }
+        stage(ctx, ChatContext.Stage.LOCATE, t1);
+        if (ctx.grid() == null) {
+            ctx.markWeatherFailed();
+            return ctx;
+        }
+
+        long t2 = System.nanoTime();
+        try {
+            if (analysis.wantCurrent()) {
+                WeatherDtos.CurrentWeatherResponse cw = background
+                        ? weatherService.getCurrentAtGrid(ctx.grid())
+                        : weatherService.getCurrent(ctx.lat(), ctx.lon(), null, false);
+                ctx.current(cw, baseOf(weatherService.nowcastKind(), cw.baseTime()));
+            } else {
+                WeatherDtos.ForecastResponse fr = background
+                        ? weatherService.getForecastAtGrid(ctx.grid())
+                        : weatherService.getForecast(ctx.lat(), ctx.lon(), null, false);
+                ctx.forecast(fr, ForecastSelector.chooseIndex(fr, analysis.intent()),
+                        baseOf(KmaPublishSchedule.Kind.VILAGE, fr.baseTime()));
+            }
+        } catch (Exception e) {
+            ctx.markWeatherFailed();
+        } finally {
+            stage(ctx, ChatContext.Stage.WEATHER, t2);
+        }
+        return ctx;
+    }
+
+    // 응답의 baseTime(yyyyMMddHHmm) → 발표 일정상의 기준시각(만료 시각 계산용)
+    private static KmaPublishSchedule.BaseTime baseOf(KmaPublishSchedule.Kind kind, String baseTime) {
+        if (baseTime == null || baseTime.length() != 12) return null;
+        return KmaPublishSchedule.of(kind, baseTime.substring(0, 8), baseTime.substring(8));
+    }
+
+    private static boolean missingLocation(ChatContext ctx, ChatDtos.ChatRequest req) {
+        return ctx.wantsWeather() && ctx.city() == null && req.lat() == null && req.lon() == null;
+    }
+
+    /** 날씨 스냅샷이 있으면 LLM 없이 만든 문장. 만들 수 없으면 null */
+    private String template(ChatContext ctx) {
+        if (!ctx.wantsWeather() || ctx.weatherFailed()) return null;
+        long t0 = System.nanoTime();
+        try {
+            String out = ctx.current() != null
+                    ? NlgFormatter.formatCurrent(ctx.current(), ctx.city())
+                    : NlgFormatter.formatForecast(ctx.forecast(), ctx.city(), ctx.lastUser(), ctx.forecastIndex());
+            out = TextSanitizer.sanitize(out);
+            return out == null || out.isBlank() ? null : out;
+        } catch (Exception ignored) {
+            return null;
+        } finally {
+            stage(ctx, ChatContext.Stage.TEMPLATE, t0);
+        }
+    }
+
+    // 짧은 질문을 먼저 받는다(챗 API는 모두 인증 사용자 전용이라 인증 여부로는 구분하지 않음)
+    private LlmAdmission.Permit admit(ChatContext ctx) {
+        long t0 = System.nanoTime();
+        try {
+            LlmAdmission.Priority p = ctx.lastUser().length() <= shortQuestionChars
+                    ? LlmAdmission.Priority.SHORT
+                    : LlmAdmission.Priority.NORMAL;
+            return admission.acquire(p);
+        } finally {
+            stage(ctx, ChatContext.Stage.QUEUE, t0);
+        }
+    }
+
+    private void stage(ChatContext ctx, ChatContext.Stage stage, long startNanos) {
+        long nanos = System.nanoTime() - startNanos;
+        ctx.elapsed(stage, nanos);
+        if (ctx.background()) return;
+        meterRegistry.timer("chat.stage", "stage", stage.tag).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private String buildPromptWithTools(ChatContext ctx, String data) {
         String systemBase = String.join("\n",
                 "너는 한국어로만 답변하는 날씨 도우미야.",
                 "- 항상 사실에 근거해 간결하게 답변해.",
@@ -162,62 +308,50 @@ public class ChatService {
                 "- 아래 참고 데이터나 지시 문구(예: '현재 데이터:', '예보 데이터:', '다음은 참고용 데이터다')를 그대로 반복하거나 인용하지 말고, 최종 답만 출력하라.",
                 "- 질문으로 되묻지 말고, 답만 출력하라.");
         // keep only the last user content to minimize echo
-        String history = req.messages().stream()
-                .filter(m -> "user".equalsIgnoreCase(m.role()))
-                .reduce((a,b) -> b)
-                .map(m -> m.content())
-                .orElse("");
-
-        String lastUser = req.messages().stream()
-                .filter(m -> "user".equalsIgnoreCase(m.role()))
-                .reduce((a,b) -> b)
-                .map(ChatDtos.Message::content)
-                .orElse("");
-
-        boolean wantForecast = IntentParser.containsAny(lastUser, "예보","내일","모레","주간","forecast");
-        boolean wantCurrent = IntentParser.containsAny(lastUser, "현재","지금","오늘","now","current");
-
-        // 간단 도시명 추출 (좌표/명시적 city가 없는 경우 보조)
-        String inferredCity = IntentParser.inferCity(req.city(), lastUser);
-        StringBuilder ctx = new StringBuilder();
-        if (wantForecast || wantCurrent) {
-            try {
-                if (wantForecast) {
-                    Double lat0 = req.lat(), lon0 = req.lon();
-                    if ((lat0 == null || lon0 == null) && inferredCity != null) {
-                        double[] c = GeoService.geocode(inferredCity);
-                        if (c != null) { lat0 = c[0]; lon0 = c[1]; }
-                    }
-                    WeatherDtos.ForecastResponse fr = weatherService.getForecast(lat0, lon0, inferredCity, false);
-                    int idx = ForecastSelector.chooseIndex(fr, lastUser);
-                    if (idx >= 0 && idx < fr.items().size()) {
-                        var it = fr.items().get(idx);
-                        ctx.append("예보 요약: ");
-                        ctx.append(String.format(Locale.ROOT,
-                                "%s 기준, 기온 %s°C, 하늘 %s, 강수확률 %s%%.",
-                                nz(it.dateTime()), nz(it.temperature()), nz(it.sky()), nz(it.pop())));
-                    }
-                } else {
-                    Double lat0 = req.lat(), lon0 = req.lon();
-                    if ((lat0 == null || lon0 == null) && inferredCity != null) {
-                        double[] c = GeoService.geocode(inferredCity);
-                        if (c != null) { lat0 = c[0]; lon0 = c[1]; }
-                    }
-                    WeatherDtos.CurrentWeatherResponse cw = weatherService.getCurrent(lat0, lon0, inferredCity, false);
-                    ctx.append(String.format(Locale.ROOT,
-                            "현재 요약: 기온 %s°C, 강수 %smm, 하늘 %s.",
-                            nz(cw.temperature()), nz(cw.precipitation()), nz(cw.sky())));
-                }
-            } catch (Exception e) {
-                ctx.append("데이터 오류: 날씨 데이터를 불러오지 못했습니다.");
-            }
-        }
+        String history = ctx.lastUser();
         // merge guidance and tool data into system to avoid echo
-        String system = systemBase + (ctx.length() > 0 ? ("\n\n참고 요약(출력에 인용 금지): " + ctx) : "");
+        String system = systemBase + (!data.isEmpty() ? ("\n\n참고 요약(출력에 인용 금지): " + data) : "");
         String prompt = system + "\n\n" + history;
         return prompt;
     }
 
+    /** 프롬프트에 넣을 날씨 요약. 날씨 의도가 없거나 쓸 슬롯이 없으면 빈 문자열 */
+    private static String toolSummary(ChatContext ctx) {
+        if (!ctx.wantsWeather()) return "";
+        if (ctx.weatherFailed()) return "데이터 오류: 날씨 데이터를 불러오지 못했습니다.";
+        String place = ctx.city() != null ? "(" + ctx.city() + ")" : "";
+        if (ctx.current() != null) {
+            WeatherDtos.CurrentWeatherResponse cw = ctx.current();
+            return String.format(Locale.ROOT,
+                    "현재 요약%s: 기온 %s°C, 강수 %smm, 하늘 %s.",
+                    place, nz(cw.temperature()), nz(cw.precipitation()), nz(cw.sky()));
+        }
+        WeatherDtos.ForecastResponse fr = ctx.forecast();
+        int idx = ctx.forecastIndex();
+        if (fr == null || idx < 0 || idx >= fr.items().size()) return "";
+        var it = fr.items().get(idx);
+        return "예보 요약" + place + ": " + String.format(Locale.ROOT,
+                "%s 기준, 기온 %s°C, 하늘 %s, 강수확률 %s%%.",
+                nz(it.dateTime()), nz(it.temperature()), nz(it.sky()), nz(it.pop()));
+    }
+
+    // 스트림당 한 번만 기록. source=template(LLM 없이 템플릿 응답) | summary(미리 만든 요약) | cache(캐시된 LLM 답) | llm
+    private final class FirstToken {
+        private final long startNanos;
+        private boolean recorded;
+
+        FirstToken(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        void mark(String source) {
+            if (recorded) return;
+            recorded = true;
+            meterRegistry.timer("chat.stream.ttft", "source", source)
+                    .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
     private static String nz(Object v) {
         return v == null ? "-" : String.valueOf(v);
     }
@@ -0,0 +1,134 @@
+package com.example.weather.service;
+
+import com.example.weather.util.Gazetteer;
+import com.example.weather.util.KmaGridConverter;
+import com.example.weather.util.KmaPublishSchedule;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// 발표 직후 인기 지역에 대해, 템플릿으로 답할 수 없어 LLM으로 가는 질문의 답을 미리 만들어 ChatSummaryStore에 채운다.
+// 기본은 꺼져 있다. 질문(chat.pregenerate.questions)을 정해 켜야 하며, 템플릿으로 답하는 질문은 LLM을 쓰지 않고 건너뛴다
+@Component
+public class ChatSummaryPregenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatSummaryPregenerator.class);
+
+    // 연속으로 이만큼 실패하면(LLM 서버 중단 등) 이번 회차를 멈춘다
+    private static final int MAX_CONSECUTIVE_FAILURES = 3;
+
+    private final ChatService chatService;
+    private final KmaClient kmaClient;
+    private final boolean enabled;
+    private final List<String> questions;
+    private final List<String> seedCities;
+    private final int hotCities;
+    private final long delaySeconds;
+    private final ExecutorService executor;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private String lastSlot;
+
+    public ChatSummaryPregenerator(
+            ChatService chatService,
+            KmaClient kmaClient,
+            @Value("${chat.pregenerate.enabled:false}") boolean enabled,
+            @Value("${chat.pregenerate.questions:}") List<String> questions,
+            @Value("${chat.pregenerate.cities:서울,부산,인천,대구,대전,광주,울산,제주}") List<String> seedCities,
+            @Value("${chat.pregenerate.hot-cities:10}") int hotCities,
+            @Value("${chat.pregenerate.delay-seconds:120}") long delaySeconds
+    ) {
+        this.chatService = chatService;
+        this.kmaClient = kmaClient;
+        this.enabled = enabled;
+        // 일반 요청과 같은 의도 해석을 거치도록 질문 문장으로 정의. 앞에 지역명을 붙여 쓴다
+        this.questions = questions;
+        this.seedCities = seedCities;
+        this.hotCities = hotCities;
+        this.delaySeconds = delaySeconds;
+        // LLM 자리를 하나 이상 쓰지 않도록 한 줄로 처리
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "chat-pregenerate");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${chat.pregenerate.check-interval-ms:30000}", initialDelayString = "${chat.pregenerate.check-interval-ms:30000}")
+    public void tick() {
+        if (!enabled || questions.isEmpty() || !kmaClient.isConfigured() || running.get()) return;
+        // 단기예보·현재 날씨 중 하나라도 기준시각이 바뀌면 새 회차. KMA 선조회가 끝나도록 delaySeconds 뒤에 시작
+        LocalDateTime now = KmaPublishSchedule.now();
+        String slot = slot(now);
+        if (slot.equals(lastSlot) || !slot.equals(slot(now.minusSeconds(delaySeconds)))) return;
+        lastSlot = slot;
+        running.set(true);
+        executor.execute(() -> {
+            try {
+                pregenerate();
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    // Hub는 현재 날씨를 예보의 현재 시각 행에서 파생하므로 정시마다 새 회차(이미 있는 예보 요약은 건너뜀)
+    private String slot(LocalDateTime now) {
+        KmaPublishSchedule.BaseTime vilage = KmaPublishSchedule.current(KmaPublishSchedule.Kind.VILAGE, now);
+        if (kmaClient.nowcastKind() == KmaPublishSchedule.Kind.VILAGE) {
+            return vilage.date() + vilage.time() + "/" + now.getHour();
+        }
+        KmaPublishSchedule.BaseTime nowcast = KmaPublishSchedule.current(kmaClient.nowcastKind(), now);
+        return vilage.date() + vilage.time() + "/" + nowcast.date() + nowcast.time();
+    }
+
+    private void pregenerate() {
+        long started = System.nanoTime();
+        int stored = 0, failures = 0;
+        List<Gazetteer.Entry> places = places();
+        outer:
+        for (Gazetteer.Entry place : places) {
+            for (String question : questions) {
+                try {
+                    if (chatService.pregenerate(place, question)) stored++;
+                    failures = 0;
+                } catch (RuntimeException e) {
+                    log.debug("Chat summary pregenerate failed place={} q={}: {}", place, question, e.getMessage());
+                    if (++failures >= MAX_CONSECUTIVE_FAILURES) break outer;
+                }
+            }
+        }
+        log.info("Chat summary pregenerate places={} stored={} took={}ms",
+                places.size(), stored, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // 설정된 도시 + 최근 조회가 많은 격자의 대표 지역(중복 제거)
+    private List<Gazetteer.Entry> places() {
+        Gazetteer gazetteer = Gazetteer.get();
+        Set<Gazetteer.Entry> out = new LinkedHashSet<>();
+        for (String city : seedCities) {
+            Gazetteer.Entry e = gazetteer.lookup(city);
+            if (e != null) out.add(e);
+        }
+        for (KmaGridConverter.Grid grid : kmaClient.hotCells(hotCities)) {
+            Gazetteer.Entry e = gazetteer.atGrid(grid);
+            if (e != null) out.add(e);
+        }
+        return List.copyOf(out);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
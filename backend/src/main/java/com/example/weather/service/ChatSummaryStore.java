@@ -0,0 +1,108 @@
+package com.example.weather.service;
+
+import com.example.weather.util.KmaPublishSchedule;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 인기 지역에 대해 미리 만들어 둔 LLM 답. 템플릿으로 답할 수 없는 질문에만 쓰고, 정규화한 질문·의도·격자·기준시각·참조한 자료 행이 모두 같을 때만 재사용하므로
+ * 미리 만든 질문과 다른 질문(우산 챙겨야 해? 등)은 그대로 템플릿/LLM 경로로 간다.
+ * 기준시각의 다음 발표 시각에 만료되고, Hub처럼 현재 날씨를 예보 행에서 파생하면 그 시각(정시)이 바뀔 때 만료된다.
+ */
+@Component
+public class ChatSummaryStore {
+
+    private record Key(String question, int dayOffset, String window, boolean current,
+                       int nx, int ny, String base, int epochHour) {}
+
+    private record Summary(String text, long validUntilEpochMillis) {}
+
+    private final Cache<Key, Summary> cache;
+    private final AtomicLong hits = new AtomicLong();
+
+    public ChatSummaryStore(@Value("${chat.pregenerate.max-entries:2000}") long maxEntries) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<Key, Summary>() {
+                    @Override
+                    public long expireAfterCreate(Key key, Summary s, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0L, s.validUntilEpochMillis - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Key key, Summary s, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, s, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Key key, Summary s, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public String get(ChatContext ctx) {
+        Key key = key(ctx);
+        if (key == null) return null;
+        Summary s = cache.getIfPresent(key);
+        if (s == null) return null;
+        hits.incrementAndGet();
+        return s.text;
+    }
+
+    public boolean contains(ChatContext ctx) {
+        Key key = key(ctx);
+        return key != null && cache.getIfPresent(key) != null;
+    }
+
+    public void put(ChatContext ctx, String summary) {
+        Key key = key(ctx);
+        if (key == null || summary == null || summary.isBlank()) return;
+        cache.put(key, new Summary(summary, validUntilEpochMillis(ctx)));
+    }
+
+    public long hitCount() {
+        return hits.get();
+    }
+
+    public long entryCount() {
+        return cache.estimatedSize();
+    }
+
+    // 최신 자료가 있는 날씨 질문만 대상. 실황은 epochHour -1, 예보에서 파생한 현재 날씨는 파생 시각
+    private static Key key(ChatContext ctx) {
+        if (ctx.grid() == null || ctx.base() == null || ctx.weatherFailed() || ctx.weatherStale()) return null;
+        int epochHour;
+        if (ctx.current() != null) {
+            epochHour = derivedNowcast(ctx) ? KmaForecast.epochHour(ctx.resolvedAt().toLocalDate(), ctx.resolvedAt().getHour()) : -1;
+        } else {
+            int idx = ctx.forecastIndex();
+            if (ctx.forecast() == null || idx < 0 || idx >= ctx.forecast().items().size()) return null;
+            epochHour = ctx.forecast().items().get(idx).epochHour();
+        }
+        IntentParser.Analysis a = ctx.analysis();
+        String base = ctx.base().kind() + ctx.base().date() + ctx.base().time();
+        return new Key(LlmAnswerCache.normalize(ctx.lastUser()), a.intent().dayOffset, a.intent().window, ctx.current() != null,
+                ctx.grid().nx(), ctx.grid().ny(), base, epochHour);
+    }
+
+    private static long validUntilEpochMillis(ChatContext ctx) {
+        long until = ctx.base().validUntilEpochMillis();
+        if (!derivedNowcast(ctx)) return until;
+        LocalDateTime nextHour = ctx.resolvedAt().truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        return Math.min(until, nextHour.atZone(KmaPublishSchedule.KST).toInstant().toEpochMilli());
+    }
+
+    private static boolean derivedNowcast(ChatContext ctx) {
+        return ctx.current() != null && ctx.base().kind() == KmaPublishSchedule.Kind.VILAGE;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.weather.service;
+
+import com.example.weather.dto.WeatherDtos;
+import com.example.weather.util.KmaGridConverter;
+import com.example.weather.util.KmaPublishSchedule.BaseTime;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 예보 응답을 격자+기준시각 단위로 직렬화/압축해 둔 바이트 캐시.
+ * 같은 기준시각 동안 응답 본문이 같으므로 Jackson 직렬화와 gzip 압축을 한 번만 하고 바이트를 그대로 내려준다.
+ */
+@Component
+public class ForecastPayloadCache {
+
+    public record Payload(byte[] json, byte[] gzip, String baseTime, boolean stale) {}
+
+    private final ObjectMapper objectMapper;
+    private final Cache<String, CachedPayload> cache;
+
+    private record CachedPayload(Payload payload, BaseTime base) {}
+
+    public ForecastPayloadCache(ObjectMapper objectMapper,
+                                @Value("${weather.payload-cache.max-bytes:16777216}") long maxBytes) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String k, CachedPayload c) -> c.payload.json.length + c.payload.gzip.length)
+                .expireAfter(new Expiry<String, CachedPayload>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedPayload c, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0L, c.base.validUntilEpochMillis() - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedPayload c, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, c, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedPayload c, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * 최신 자료면 캐시된 바이트를 쓰고, 없으면 body를 만들어 직렬화/압축 후 저장한다.
+     * stale 응답은 곧 바뀌므로 저장하지 않는다. refresh=true(nocache)면 새로 만들어 덮어쓴다.
+     */
+    Payload get(String provider, KmaGridConverter.Grid grid, KmaClient.Fetched<?> fetched, boolean refresh,
+                Supplier<WeatherDtos.ForecastResponse> body) {
+        BaseTime base = fetched.base();
+        if (fetched.stale()) {
+            return serialize(body.get());
+        }
+        String key = String.format(Locale.ROOT, "%s|%d|%d|%s%s", provider, grid.nx(), grid.ny(), base.date(), base.time());
+        if (!refresh) {
+            CachedPayload hit = cache.getIfPresent(key);
+            if (hit != null) return hit.payload;
+        }
+        Payload p = serialize(body.get());
+        cache.put(key, new CachedPayload(p, base));
+        return p;
+    }
+
+    public long entryCount() {
+        return cache.estimatedSize();
+    }
+
+    private Payload serialize(WeatherDtos.ForecastResponse body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            ByteArrayOutputStream bos = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+            try (GZIPOutputStream gz = new GZIPOutputStream(bos)) {
+                gz.write(json);
+            }
+            return new Payload(json, bos.toByteArray(), body.baseTime(), body.stale());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("예보 응답 직렬화 실패", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,60 +1,65 @@
 package com.example.weather.service;
 
 import com.example.weather.dto.WeatherDtos;
+import com.example.weather.util.KmaPublishSchedule;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 public class ForecastSelector {
     private ForecastSelector() {}
 
     public static int chooseIndex(WeatherDtos.ForecastResponse fr, String query) {
+        return chooseIndex(fr, IntentParser.parseIntent(query));
+    }
+
+    /**
+     * (dayOffset, 시간대) 목표 시각에 가장 가까운 같은 날짜의 예보 행. 거리가 같으면 강수확률이 높은 행, 그다음 이른 행.
+     * 항목은 시각 오름차순·미리 계산된 epochHour를 가지므로 목표 시각 위치를 바로 찾아 양옆으로만 넓혀 본다.
+     */
+    public static int chooseIndex(WeatherDtos.ForecastResponse fr, IntentParser.Intent intent) {
         if (fr == null || fr.items() == null || fr.items().isEmpty()) return -1;
-        IntentParser.Intent intent = IntentParser.parseIntent(query);
-        LocalDate baseDate = LocalDate.now(ZoneId.systemDefault()).plusDays(intent.dayOffset);
+        List<WeatherDtos.ForecastEntry> items = fr.items();
+        LocalDate baseDate = KmaPublishSchedule.now().toLocalDate().plusDays(intent.dayOffset);
         Integer targetHour = IntentParser.targetHourForWindow(intent.window);
+        int dayStart = KmaForecast.epochHour(baseDate, 0);
+        int target = dayStart + (targetHour != null ? targetHour : 12);
+
+        int pos = lowerBound(items, target);
         int bestIdx = -1;
         long bestScore = Long.MAX_VALUE;
-        for (int i = 0; i < fr.items().size(); i++) {
-            var it = fr.items().get(i);
-            LocalDateTime dt = parseDateTimeSafe(String.valueOf(it.dateTime()));
-            if (dt == null) continue;
-            if (!dt.toLocalDate().isEqual(baseDate)) continue;
-            long score;
-            if (targetHour != null) {
-                score = Math.abs(dt.getHour() - targetHour);
-            } else {
-                score = Math.abs(dt.getHour() - 12);
-            }
-            try {
-                long negPop = -Math.round(Double.parseDouble(String.valueOf(it.pop())));
-                score = score * 1000 + (negPop + 1000);
-            } catch (Exception ignored) { }
-            if (score < bestScore) { bestScore = score; bestIdx = i; }
+        for (int i = pos; i < items.size(); i++) {
+            int eh = items.get(i).epochHour();
+            if (eh >= dayStart + 24 || (long) (eh - target) * 1000 > bestScore) break;
+            long score = score(eh - target, items.get(i).pop());
+            if (score < bestScore || (score == bestScore && i < bestIdx)) { bestScore = score; bestIdx = i; }
+        }
+        for (int i = pos - 1; i >= 0; i--) {
+            int eh = items.get(i).epochHour();
+            if (eh < dayStart || (long) (target - eh) * 1000 > bestScore) break;
+            long score = score(target - eh, items.get(i).pop());
+            if (score < bestScore || (score == bestScore && i < bestIdx)) { bestScore = score; bestIdx = i; }
         }
         if (bestIdx == -1) bestIdx = 0;
         return bestIdx;
     }
 
-    private static LocalDateTime parseDateTimeSafe(String s) {
-        if (s == null) return null;
-        String[] patterns = new String[]{
-                "yyyy-MM-dd'T'HH:mm:ss",
-                "yyyy-MM-dd HH:mm:ss",
-                "yyyy-MM-dd HH:mm",
-                "yyyy-MM-dd'T'HH:mm",
-                "yyyyMMddHHmm",
-                "yyyyMMddHH"
-        };
-        for (String p : patterns) {
-            try {
-                DateTimeFormatter f = DateTimeFormatter.ofPattern(p);
-                return LocalDateTime.parse(s, f);
-            } catch (Exception ignored) { }
+    // 시간 차이가 우선, 같으면 강수확률이 높은 쪽(결측은 0%로 취급)
+    private static long score(int hourDistance, Integer pop) {
+        return hourDistance * 1000L + (1000 - (pop != null ? pop : 0));
+    }
+
+    // 매 시각 예보라면 첫 항목과의 시차가 곧 인덱스. 빠진 시각이 있으면 이분 탐색
+    private static int lowerBound(List<WeatherDtos.ForecastEntry> items, int epochHour) {
+        int guess = epochHour - items.get(0).epochHour();
+        if (guess <= 0) return 0;
+        if (guess < items.size() && items.get(guess).epochHour() == epochHour) return guess;
+        int lo = 0, hi = items.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (items.get(mid).epochHour() < epochHour) lo = mid + 1;
+            else hi = mid;
         }
-        try { return LocalDateTime.parse(s); } catch (Exception ignored) { }
-        return null;
+        return lo;
     }
 }
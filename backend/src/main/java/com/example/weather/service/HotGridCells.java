@@ -0,0 +1,45 @@
+package com.example.weather.service;
+
+import com.example.weather.util.KmaGridConverter;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// 격자별 조회 빈도 집계. 주기적으로 절반씩 감쇠시켜 최근 트래픽 위주로 상위 격자를 고른다.
+class HotGridCells {
+    private static final int MAX_TRACKED = 10_000;
+
+    private final ConcurrentHashMap<KmaGridConverter.Grid, LongAdder> counts = new ConcurrentHashMap<>();
+
+    void record(KmaGridConverter.Grid grid) {
+        LongAdder c = counts.get(grid);
+        if (c == null) {
+            if (counts.size() >= MAX_TRACKED) return;
+            c = counts.computeIfAbsent(grid, g -> new LongAdder());
+        }
+        c.increment();
+    }
+
+    List<KmaGridConverter.Grid> top(int limit) {
+        return counts.entrySet().stream()
+                .map(e -> Map.entry(e.getKey(), e.getValue().sum()))
+                .filter(e -> e.getValue() > 0)
+                .sorted(Map.Entry.<KmaGridConverter.Grid, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(Math.max(0, limit))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    void decay() {
+        counts.entrySet().removeIf(e -> {
+            LongAdder c = e.getValue();
+            long half = c.sumThenReset() / 2;
+            if (half == 0) return true;
+            c.add(half);
+            return false;
+        });
+    }
+}
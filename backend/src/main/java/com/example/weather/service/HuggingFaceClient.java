@@ -1,28 +1,36 @@
 package com.example.weather.service;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.entity.StringEntity;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
 @Component
-@RequiredArgsConstructor
 public class HuggingFaceClient {
 
     @Value("${huggingface.api-base}")
@@ -34,8 +42,40 @@ public class HuggingFaceClient {
     @Value("${huggingface.api-token}")
     private String apiToken;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final CloseableHttpClient httpClient;
+    private final RestTemplate restTemplate;
     private final ObjectMapper mapper = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    private static final JsonFactory JSON = new JsonFactory();
+
+    // generate/streamChat 모두 연결 풀(LlmHttpConfig)을 공유한다
+    public HuggingFaceClient(CloseableHttpClient llmHttpClient) {
+        this.httpClient = llmHttpClient;
+        this.restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(llmHttpClient));
+    }
+
+    /**
+     * 진행 중인 스트림 호출을 취소하는 핸들. SSE 클라이언트가 끊기면 cancel()로 LLM 연결을 끊어
+     * 남은 토큰 생성을 기다리지 않는다. 호출 전에 취소됐으면 요청을 보내지 않는다.
+     */
+    public static final class Call {
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private volatile HttpUriRequestBase request;
+
+        public void cancel() {
+            if (!cancelled.compareAndSet(false, true)) return;
+            HttpUriRequestBase r = request;
+            if (r != null) r.cancel();
+        }
+
+        public boolean isCancelled() {
+            return cancelled.get();
+        }
+
+        private void bind(HttpUriRequestBase r) {
+            request = r;
+            if (cancelled.get()) r.cancel();
+        }
+    }
 
     public String generate(String prompt) {
         try {
@@ -158,6 +198,10 @@ public class HuggingFaceClient {
     }
 
     public void streamChat(String prompt, Consumer<String> onDelta) {
+        streamChat(prompt, onDelta, new Call());
+    }
+
+    public void streamChat(String prompt, Consumer<String> onDelta, Call call) {
         String base = (apiBase == null ? "https://api-inference.huggingface.co/models" : apiBase.trim()).replaceAll("/+$(?-i)", "");
         String modelId = (model == null ? "" : model.trim());
         boolean isRouterChat = base.contains("/v1/chat/completions");
@@ -167,22 +211,17 @@ public class HuggingFaceClient {
             if (out != null && !out.isBlank()) onDelta.accept(out);
             return;
         }
-        HttpURLConnection conn = null;
         try {
             // debug
             try {
                 String tokenInfo = (apiToken == null ? "null" : ("len=" + apiToken.trim().length()));
                 System.out.println("[HF-stream] base=" + base + ", model=" + modelId + ", token(" + tokenInfo + ")");
             } catch (Exception ignored) {}
-            URL url = new URL(base);
-            conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("POST");
-            conn.setDoOutput(true);
-            conn.setRequestProperty("Content-Type", "application/json");
-            conn.setRequestProperty("Accept", "text/event-stream");
-            conn.setRequestProperty("User-Agent", "weather-backend/1.0");
+            HttpPost post = new HttpPost(base);
+            post.setHeader("Accept", "text/event-stream");
+            post.setHeader("User-Agent", "weather-backend/1.0");
             if (apiToken != null && !apiToken.isBlank()) {
-                conn.setRequestProperty("Authorization", "Bearer " + apiToken);
+                post.setHeader("Authorization", "Bearer " + apiToken);
             }
 
             Map<String, Object> body = new HashMap<>();
@@ -212,61 +251,111 @@ public class HuggingFaceClient {
             );
             body.put("stream", true);
             String json = mapper.writeValueAsString(body);
-            try (OutputStream os = conn.getOutputStream()) {
-                os.write(json.getBytes(StandardCharsets.UTF_8));
-            }
+            post.setEntity(new StringEntity(json, ContentType.APPLICATION_JSON));
+            call.bind(post);
 
-            int code = conn.getResponseCode();
-            if (code < 200 || code >= 300) {
-                String err = null;
-                try (BufferedReader br = new BufferedReader(new InputStreamReader(conn.getErrorStream(), StandardCharsets.UTF_8))) {
-                    StringBuilder sb = new StringBuilder();
-                    String line; while ((line = br.readLine()) != null) sb.append(line);
-                    err = sb.toString();
-                } catch (Exception ignored) {}
-                throw new RuntimeException("HF Inference API error (" + code + ") | url=" + base + " | model=" + modelId + (err != null ? (": " + err) : ""));
-            }
-
-            try (BufferedReader br = new BufferedReader(new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    if (line.isBlank()) continue; // SSE frame separator
-                    if (!line.startsWith("data:")) continue;
-                    String data = line.substring(5).trim();
-                    if ("[DONE]".equals(data)) break;
+            // 핸들러가 끝나면 연결은 풀로 반환된다(취소된 경우 연결은 닫힌다)
+            httpClient.execute(post, response -> {
+                int code = response.getCode();
+                if (code < 200 || code >= 300) {
+                    String err = null;
                     try {
-                        Map<String, Object> obj = mapper.readValue(data, new TypeReference<>(){});
-                        List<Map<String, Object>> choices = (List<Map<String, Object>>) obj.get("choices");
-                        if (choices != null && !choices.isEmpty()) {
-                            Map<String, Object> first = choices.get(0);
-                            Map<String, Object> delta = (Map<String, Object>) first.get("delta");
-                            if (delta != null) {
-                                Object content = delta.get("content");
-                                if (content != null) onDelta.accept(String.valueOf(content));
-                                continue;
-                            }
-                            Map<String, Object> message = (Map<String, Object>) first.get("message");
-                            if (message != null) {
-                                Object content = message.get("content");
-                                if (content != null) onDelta.accept(String.valueOf(content));
-                                continue;
-                            }
-                            Object text = first.get("text");
-                            if (text != null) onDelta.accept(String.valueOf(text));
+                        err = response.getEntity() != null ? EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8) : null;
+                    } catch (Exception ignored) {}
+                    throw new RuntimeException("HF Inference API error (" + code + ") | url=" + base + " | model=" + modelId + (err != null ? (": " + err) : ""));
+                }
+                try (BufferedReader br = new BufferedReader(new InputStreamReader(response.getEntity().getContent(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = br.readLine()) != null) {
+                        if (line.isBlank()) continue; // SSE frame separator
+                        if (!line.startsWith("data:")) continue;
+                        String data = line.substring(5).trim();
+                        if ("[DONE]".equals(data)) break;
+                        try {
+                            String content = deltaContent(data);
+                            if (content != null) onDelta.accept(content);
+                        } catch (Exception ignored) {
+                            // If not JSON, emit raw line for visibility
+                            onDelta.accept(data);
                         }
-                    } catch (Exception ignored) {
-                        // If not JSON, emit raw line for visibility
-                        onDelta.accept(data);
                     }
                 }
-            }
+                return null;
+            });
         } catch (Exception e) {
+            if (call.isCancelled()) throw new RuntimeException("클라이언트 연결이 끊겨 LLM 호출을 취소했습니다.", e);
             throw new RuntimeException(e);
-        } finally {
-            if (conn != null) conn.disconnect();
         }
     }
 
+    /**
+     * 스트림 한 줄(JSON)에서 choices[0]의 delta.content → message.content → text 순으로 꺼낸다.
+     * 토큰마다 Map 트리를 만들지 않도록 스트리밍 파서로 필요한 필드만 읽고 나머지는 건너뛴다. 없으면 null.
+     * JSON이 아니거나 형태가 다르면 예외(호출부에서 원문을 그대로 내보냄).
+     */
+    static String deltaContent(String data) throws IOException {
+        try (JsonParser p = JSON.createParser(data)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) throw new JsonParseException(p, "JSON 객체가 아닙니다.");
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String name = p.currentName();
+                JsonToken t = p.nextToken();
+                if (!"choices".equals(name)) {
+                    p.skipChildren();
+                    continue;
+                }
+                if (t == JsonToken.VALUE_NULL) return null;
+                if (t != JsonToken.START_ARRAY) throw new JsonParseException(p, "choices가 배열이 아닙니다.");
+                t = p.nextToken();
+                if (t == JsonToken.END_ARRAY) return null;
+                if (t != JsonToken.START_OBJECT) throw new JsonParseException(p, "choices[0]이 객체가 아닙니다.");
+                return choiceContent(p);
+            }
+            return null;
+        }
+    }
+
+    // choices[0] 객체 안: 필드 순서와 무관하게 delta > message > text 우선
+    private static String choiceContent(JsonParser p) throws IOException {
+        boolean hasDelta = false, hasMessage = false;
+        String delta = null, message = null, text = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String name = p.currentName();
+            JsonToken t = p.nextToken();
+            if ("delta".equals(name) && t == JsonToken.START_OBJECT) {
+                hasDelta = true;
+                delta = objectContent(p);
+            } else if ("message".equals(name) && t == JsonToken.START_OBJECT) {
+                hasMessage = true;
+                message = objectContent(p);
+            } else if ("text".equals(name)) {
+                text = scalar(p, t);
+            } else {
+                p.skipChildren();
+            }
+        }
+        if (hasDelta) return delta;
+        if (hasMessage) return message;
+        return text;
+    }
+
+    private static String objectContent(JsonParser p) throws IOException {
+        String content = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String name = p.currentName();
+            JsonToken t = p.nextToken();
+            if ("content".equals(name)) content = scalar(p, t);
+            else p.skipChildren();
+        }
+        return content;
+    }
+
+    private static String scalar(JsonParser p, JsonToken t) throws IOException {
+        if (t == JsonToken.VALUE_NULL) return null;
+        if (t.isScalarValue()) return p.getText();
+        p.skipChildren();
+        return null;
+    }
+
     private List<Map<String, Object>> buildMessages(String prompt) {
         // First paragraph (up to first blank line) as system; rest as user
         String sys = null;
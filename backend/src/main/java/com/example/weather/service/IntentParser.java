@@ -1,26 +1,99 @@
 package com.example.weather.service;
 
+import com.example.weather.util.AhoCorasick;
+import com.example.weather.util.Gazetteer;
+
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 
 public class IntentParser {
     private IntentParser() {}
 
+    // 의도 키워드. 같은 축(날짜/시간대)에 여러 개가 걸리면 rank가 큰 쪽을 쓴다(기존 if-else 우선순위와 동일)
+    private enum Tag {
+        FORECAST, CURRENT,
+        DAY_AFTER_TOMORROW(2, 3), TOMORROW(1, 2), WEEK(1, 1), // weekly -> start from tomorrow
+        MORNING("morning", 4), AFTERNOON("afternoon", 3), EVENING("evening", 2), NIGHT("night", 1);
+
+        final int dayOffset;
+        final String window;
+        final int rank;
+
+        Tag() { this(0, null, 0); }
+        Tag(int dayOffset, int rank) { this(dayOffset, null, rank); }
+        Tag(String window, int rank) { this(0, window, rank); }
+        Tag(int dayOffset, String window, int rank) {
+            this.dayOffset = dayOffset;
+            this.window = window;
+            this.rank = rank;
+        }
+    }
+
+    /** 지명 사전 별칭과 의도 키워드를 한 자동자로 묶어, 메시지를 한 번만 훑는다 */
+    private static final class Keywords {
+        static final AhoCorasick<Object> AUTOMATON = build();
+
+        private static AhoCorasick<Object> build() {
+            AhoCorasick.Builder<Object> b = AhoCorasick.builder();
+            Gazetteer.get().registerAliases(b::add);
+            for (String k : new String[]{"예보", "forecast"}) b.add(k, Tag.FORECAST);
+            for (String k : new String[]{"현재", "지금", "오늘", "now", "current"}) b.add(k, Tag.CURRENT);
+            b.add("모레", Tag.FORECAST).add("모레", Tag.DAY_AFTER_TOMORROW);
+            b.add("내일", Tag.FORECAST).add("내일", Tag.TOMORROW).add("tomorrow", Tag.TOMORROW);
+            b.add("주간", Tag.FORECAST).add("주간", Tag.WEEK).add("이번 주", Tag.WEEK).add("한 주", Tag.WEEK);
+            b.add("오전", Tag.MORNING).add("morning", Tag.MORNING);
+            b.add("오후", Tag.AFTERNOON).add("afternoon", Tag.AFTERNOON);
+            b.add("저녁", Tag.EVENING).add("evening", Tag.EVENING);
+            b.add("밤", Tag.NIGHT).add("night", Tag.NIGHT);
+            return b.build();
+        }
+    }
+
+    /** 메시지 한 번 훑기로 얻은 지역/날짜/시간대/의도 */
+    public record Analysis(String city, Gazetteer.Entry place, Intent intent, boolean wantForecast, boolean wantCurrent) {}
+
+    public static Analysis analyze(String explicitCity, String text) {
+        boolean explicit = explicitCity != null && !explicitCity.isBlank();
+        List<Gazetteer.AliasHit> places = new ArrayList<>(4);
+        boolean[] want = new boolean[2];
+        Tag[] day = new Tag[1], window = new Tag[1];
+        Keywords.AUTOMATON.scan(text, (start, end, v) -> {
+            if (v instanceof Gazetteer.Alias a) {
+                if (!explicit) places.add(new Gazetteer.AliasHit(start, end, a));
+                return;
+            }
+            Tag t = (Tag) v;
+            switch (t) {
+                case FORECAST -> want[0] = true;
+                case CURRENT -> want[1] = true;
+                case DAY_AFTER_TOMORROW, TOMORROW, WEEK -> {
+                    if (day[0] == null || t.rank > day[0].rank) day[0] = t;
+                }
+                default -> {
+                    if (window[0] == null || t.rank > window[0].rank) window[0] = t;
+                }
+            }
+        });
+
+        Intent in = new Intent();
+        in.dayOffset = day[0] != null ? day[0].dayOffset : 0;
+        in.window = window[0] != null ? window[0].window : "any";
+
+        Gazetteer.Entry place;
+        String city;
+        if (explicit) {
+            city = explicitCity;
+            place = Gazetteer.get().lookup(explicitCity);
+        } else {
+            place = text != null ? Gazetteer.get().resolve(text, places) : null;
+            city = place != null ? place.displayName() : null;
+        }
+        return new Analysis(city, place, in, want[0], want[1]);
+    }
+
     public static String inferCity(String explicitCity, String lastUser) {
-        if (explicitCity != null && !explicitCity.isBlank()) return explicitCity;
-        if (lastUser == null) return null;
-        String t = lastUser.toLowerCase(Locale.ROOT);
-        if (t.contains("서울") || t.contains("seoul")) return "서울";
-        if (t.contains("부산") || t.contains("busan")) return "부산";
-        if (t.contains("인천") || t.contains("incheon")) return "인천";
-        if (t.contains("대구") || t.contains("daegu")) return "대구";
-        if (t.contains("대전") || t.contains("daejeon")) return "대전";
-        if (t.contains("광주") || t.contains("gwangju")) return "광주";
-        if (t.contains("울산") || t.contains("ulsan")) return "울산";
-        if (t.contains("수원") || t.contains("suwon")) return "수원";
-        if (t.contains("창원") || t.contains("changwon")) return "창원";
-        if (t.contains("고양") || t.contains("goyang")) return "고양";
-        if (t.contains("용인") || t.contains("yongin")) return "용인";
-        return null;
+        return analyze(explicitCity, lastUser).city();
     }
 
     public static boolean containsAny(String text, String... keys) {
@@ -38,18 +111,7 @@ public class IntentParser {
     }
 
     public static Intent parseIntent(String text) {
-        Intent in = new Intent();
-        in.dayOffset = 0; in.window = "any";
-        if (text == null) return in;
-        String t = text.toLowerCase(Locale.ROOT);
-        if (t.contains("모레")) in.dayOffset = 2;
-        else if (t.contains("내일") || t.contains("tomorrow")) in.dayOffset = 1;
-        else if (t.contains("주간") || t.contains("이번 주") || t.contains("한 주")) in.dayOffset = 1; // weekly -> start from tomorrow
-        if (t.contains("오전") || t.contains("morning")) in.window = "morning";
-        else if (t.contains("오후") || t.contains("afternoon")) in.window = "afternoon";
-        else if (t.contains("저녁") || t.contains("evening")) in.window = "evening";
-        else if (t.contains("밤") || t.contains("night")) in.window = "night";
-        return in;
+        return analyze(null, text).intent();
     }
 
     public static Integer targetHourForWindow(String window) {
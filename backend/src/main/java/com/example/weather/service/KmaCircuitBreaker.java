@@ -0,0 +1,58 @@
+package com.example.weather.service;
+
+// KMA 연속 실패 시 일정 시간 호출을 차단해 요청이 죽은 업스트림 앞에 줄 서지 않게 한다.
+// CLOSED → (연속 실패 threshold회) → OPEN → (openMillis 경과) → HALF_OPEN(시험 호출 1건) → 성공 시 CLOSED / 실패 시 OPEN
+final class KmaCircuitBreaker {
+
+    enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    KmaCircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMillis = openMillis;
+    }
+
+    synchronized boolean allowRequest() {
+        if (state == State.CLOSED) return true;
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openMillis) {
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        if (state == State.HALF_OPEN && !probeInFlight) {
+            probeInFlight = true;
+            return true;
+        }
+        return false;
+    }
+
+    synchronized void recordSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+            probeInFlight = false;
+        }
+    }
+
+    /** 장애로 보지 않는 실패(선조회 등). 시험 호출이었다면 다음 요청이 다시 시험하도록 자리만 돌려준다 */
+    synchronized void recordIgnored() {
+        probeInFlight = false;
+    }
+
+    synchronized State state() {
+        return state;
+    }
+}
@@ -1,27 +1,44 @@
 package com.example.weather.service;
 
 import com.example.weather.util.KmaGridConverter;
+import com.example.weather.util.KmaPublishSchedule;
+import com.example.weather.util.KmaPublishSchedule.BaseTime;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatusCode;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestClient;
 
 import java.net.URI;
 import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Component
 public class KmaClient {
 
-    private final RestClient http;
+    // 커넥션을 재사용(keep-alive, HTTP/2 우선)하는 공용 비동기 클라이언트
+    private final HttpClient http;
+    private final Duration requestTimeout;
     private final String serviceKey;
     private final String provider; // data | hub
     private final String dataBaseUrl;
@@ -31,10 +48,23 @@ public class KmaClient {
     private final String hubHeaderName;
     private final String hubQueryName;
 
-    private static final long TTL_MILLIS = 10 * 60 * 1000L;
-    private final java.util.concurrent.ConcurrentHashMap<String, CacheEntry> cache = new java.util.concurrent.ConcurrentHashMap<>();
+    // 기준시각(base)이 다음 발표로 대체되는 시점에 만료시킨다. 경과 시간 기반 TTL은 쓰지 않는다.
+    private final Cache<String, CacheEntry> cache;
 
-    private record CacheEntry(Object data, long ts) {}
+    private record CacheEntry(Object data, BaseTime base, int weight) {}
+
+    // 같은 캐시 키에 대한 동시 미스는 하나의 업스트림 호출로 합친다(single-flight)
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inflight = new ConcurrentHashMap<>();
+    private final AtomicLong coalescedLoads = new AtomicLong();
+
+    private final HotGridCells hotCells = new HotGridCells();
+
+    // 격자별 마지막 정상 자료(기준시각 무관). 최신 자료를 받기 전이나 KMA 장애 시 대신 제공한다.
+    private final Cache<String, CacheEntry> lastGood;
+    private final KmaCircuitBreaker circuit;
+    private final AtomicLong staleServed = new AtomicLong();
+
+    private final KmaSnapshotStore snapshotStore;
 
     public KmaClient(
             @Value("${kma.service-key:}") String serviceKey,
@@ -44,9 +74,48 @@ public class KmaClient {
             @Value("${kma.hub.endpoints.ultra-nowcast:/vilage/ultra-srt-ncst}") String hubUltraEndpoint,
             @Value("${kma.hub.auth.mode:header}") String hubAuthMode,
             @Value("${kma.hub.auth.header-name:x-api-key}") String hubHeaderName,
-            @Value("${kma.hub.auth.query-name:serviceKey}") String hubQueryName
+            @Value("${kma.hub.auth.query-name:serviceKey}") String hubQueryName,
+            @Value("${kma.cache.max-bytes:33554432}") long cacheMaxBytes,
+            @Value("${kma.http.connect-timeout-ms:3000}") long connectTimeoutMs,
+            @Value("${kma.http.read-timeout-ms:5000}") long readTimeoutMs,
+            @Value("${kma.stale.max-age-minutes:360}") long staleMaxAgeMinutes,
+            @Value("${kma.circuit.failure-threshold:5}") int circuitFailureThreshold,
+            @Value("${kma.circuit.open-seconds:30}") long circuitOpenSeconds,
+            KmaSnapshotStore snapshotStore
     ) {
-        this.http = RestClient.create();
+        this.lastGood = Caffeine.newBuilder()
+                .maximumWeight(Math.max(1L, cacheMaxBytes / 2))
+                .weigher((String k, CacheEntry e) -> e.weight)
+                .expireAfterWrite(Duration.ofMinutes(staleMaxAgeMinutes))
+                .build();
+        this.circuit = new KmaCircuitBreaker(circuitFailureThreshold, circuitOpenSeconds * 1000L);
+        this.snapshotStore = snapshotStore;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        this.requestTimeout = Duration.ofMillis(readTimeoutMs);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(cacheMaxBytes)
+                .weigher((String k, CacheEntry e) -> e.weight)
+                .expireAfter(new Expiry<String, CacheEntry>() {
+                    @Override
+                    public long expireAfterCreate(String key, CacheEntry e, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0L, e.base.validUntilEpochMillis() - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CacheEntry e, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, e, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CacheEntry e, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
         this.serviceKey = serviceKey;
         this.provider = provider;
         this.dataBaseUrl = dataBaseUrl;
@@ -57,196 +126,344 @@ public class KmaClient {
         this.hubQueryName = hubQueryName;
     }
 
-    public java.util.List<java.util.Map<String, String>> getVilageForecast(double lat, double lon, boolean nocache) {
-        if (serviceKey == null || serviceKey.isBlank()) {
-            throw new IllegalStateException("KMA 서비스키가 설정되어 있지 않습니다. KMA_SERVICE_KEY 환경변수를 설정하세요.");
+    /**
+     * 조회 결과와 그 자료의 기준시각.
+     * stale=true면 최신 기준시각 자료를 아직 받지 못해(갱신 중이거나 KMA 장애) 직전 자료를 돌려준 것이다.
+     */
+    public record Fetched<T>(T data, BaseTime base, boolean stale) {
+        <R> Fetched<R> map(Function<T, R> fn) {
+            return new Fetched<>(fn.apply(data), base, stale);
         }
+    }
+
+    public Fetched<KmaForecast> getVilageForecast(double lat, double lon, boolean nocache) {
+        return join(getVilageForecastAsync(lat, lon, nocache));
+    }
+
+    public Fetched<KmaForecast> getVilageForecast(KmaGridConverter.Grid grid, boolean nocache) {
+        return join(getVilageForecastAsync(grid, nocache));
+    }
+
+    public CompletableFuture<Fetched<KmaForecast>> getVilageForecastAsync(double lat, double lon, boolean nocache) {
+        KmaGridConverter.Grid grid = KmaGridConverter.toGrid(lat, lon);
+        hotCells.record(grid);
+        return getVilageForecastAsync(grid, nocache);
+    }
+
+    public CompletableFuture<Fetched<KmaForecast>> getVilageForecastAsync(KmaGridConverter.Grid grid, boolean nocache) {
+        return vilage(grid, nocache, !nocache, false);
+    }
+
+    public Fetched<Map<String, String>> getUltraNowcast(double lat, double lon, boolean nocache) {
+        return join(getUltraNowcastAsync(lat, lon, nocache));
+    }
+
+    public Fetched<Map<String, String>> getUltraNowcast(KmaGridConverter.Grid grid, boolean nocache) {
+        return join(getUltraNowcastAsync(grid, nocache));
+    }
+
+    public CompletableFuture<Fetched<Map<String, String>>> getUltraNowcastAsync(double lat, double lon, boolean nocache) {
         KmaGridConverter.Grid grid = KmaGridConverter.toGrid(lat, lon);
-        Base base = computeVilageBase();
+        hotCells.record(grid);
+        return getUltraNowcastAsync(grid, nocache);
+    }
 
-        Map<String, Object> body;
-        String url;
+    public CompletableFuture<Fetched<Map<String, String>>> getUltraNowcastAsync(KmaGridConverter.Grid grid, boolean nocache) {
+        return nowcast(grid, nocache, !nocache, false);
+    }
 
-        String cacheKey = String.format(Locale.ROOT,
-                "%s|vilage|%d|%d|%s|%s", provider.toLowerCase(Locale.ROOT), grid.nx(), grid.ny(), base.date, base.time);
+    /**
+     * 선조회용: 캐시는 쓰되 직전 자료로 대신하지 않고 실제 갱신이 끝날 때까지 기다린다.
+     * 실패해도 차단기 실패로 세지 않는다(사용자 요청이 선조회 실패 때문에 차단되지 않도록)
+     */
+    CompletableFuture<Fetched<KmaForecast>> refreshVilageForecast(KmaGridConverter.Grid grid) {
+        return vilage(grid, false, false, true);
+    }
 
-        CacheEntry ce = cache.get(cacheKey);
-        if (!nocache && ce != null && (System.currentTimeMillis() - ce.ts) < TTL_MILLIS) {
-            @SuppressWarnings("unchecked")
-            java.util.List<java.util.Map<String, String>> cached = (java.util.List<java.util.Map<String, String>>) ce.data;
-            return cached;
+    CompletableFuture<Fetched<Map<String, String>>> refreshUltraNowcast(KmaGridConverter.Grid grid) {
+        return nowcast(grid, false, false, true);
+    }
+
+    private CompletableFuture<Fetched<KmaForecast>> vilage(KmaGridConverter.Grid grid, boolean nocache, boolean allowStale, boolean prefetch) {
+        if (serviceKey == null || serviceKey.isBlank()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("KMA 서비스키가 설정되어 있지 않습니다. KMA_SERVICE_KEY 환경변수를 설정하세요."));
         }
+        BaseTime base = KmaPublishSchedule.current(KmaPublishSchedule.Kind.VILAGE);
+        String p = provider.toLowerCase(Locale.ROOT);
+        String cacheKey = String.format(Locale.ROOT,
+                "%s|vilage|%d|%d|%s|%s", p, grid.nx(), grid.ny(), base.date(), base.time());
+        String staleKey = String.format(Locale.ROOT, "%s|vilage|%d|%d", p, grid.nx(), grid.ny());
 
+        return load(cacheKey, staleKey, base, nocache, allowStale, prefetch,
+                () -> fetch("getVilageFcst", grid, base, KmaResponseParser::parseVilage));
+    }
+
+    private CompletableFuture<Fetched<Map<String, String>>> nowcast(KmaGridConverter.Grid grid, boolean nocache, boolean allowStale, boolean prefetch) {
+        if (serviceKey == null || serviceKey.isBlank()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("KMA 서비스키가 설정되어 있지 않습니다. KMA_SERVICE_KEY 환경변수를 설정하세요."));
+        }
         if ("hub".equalsIgnoreCase(provider)) {
-            String query = String.format(Locale.ROOT,
+            // Hub는 초단기실황 대신 같은 단기예보(getVilageFcst)를 쓰므로 별도 호출/캐시 없이
+            // 캐시된 단기예보에서 현재 시각에 해당하는 행을 꺼내 쓴다
+            return vilage(grid, nocache, allowStale, prefetch).thenApply(f -> f.map(KmaClient::nowcastFromForecast));
+        }
+        BaseTime base = KmaPublishSchedule.current(KmaPublishSchedule.Kind.ULTRA);
+        String p = provider.toLowerCase(Locale.ROOT);
+        String cacheKey = String.format(Locale.ROOT,
+                "%s|ultra|%d|%d|%s|%s", p, grid.nx(), grid.ny(), base.date(), base.time());
+        String staleKey = String.format(Locale.ROOT, "%s|ultra|%d|%d", p, grid.nx(), grid.ny());
+
+        return load(cacheKey, staleKey, base, nocache, allowStale, prefetch,
+                () -> fetch("getUltraSrtNcst", grid, base, KmaResponseParser::parseNowcast));
+    }
+
+    // 예보 카테고리 이름(TMP/PCP/SKY...)으로 현재 시각 행을 돌려준다
+    private static Map<String, String> nowcastFromForecast(KmaForecast f) {
+        LocalDateTime now = KmaPublishSchedule.now();
+        int idx = f.indexNearest(KmaForecast.epochHour(now.toLocalDate(), now.getHour()));
+        Map<String, String> m = new HashMap<>();
+        if (idx < 0) return m;
+        m.put("TMP", str(f.temperature(idx)));
+        m.put("PCP", str(f.precipitation(idx)));
+        m.put("SKY", str(f.skyCode(idx)));
+        m.put("POP", str(f.pop(idx)));
+        m.put("REH", str(f.humidity(idx)));
+        m.put("WSD", str(f.windSpeed(idx)));
+        return m;
+    }
+
+    private static String str(Object v) {
+        return v == null ? null : String.valueOf(v);
+    }
+
+    private <T> CompletableFuture<T> fetch(String operation, KmaGridConverter.Grid grid, BaseTime base, Function<byte[], T> parser) {
+        boolean hub = "hub".equalsIgnoreCase(provider);
+        String url;
+        HttpRequest.Builder req = HttpRequest.newBuilder().GET().timeout(requestTimeout);
+        if (hub) {
+            // Hub: 일반적으로 key를 헤더(x-api-key)로 전달. 필요 시 query로도 지원
+            url = hubBaseUrl + "/" + operation + String.format(Locale.ROOT,
                     "?pageNo=1&numOfRows=1000&dataType=JSON&base_date=%s&base_time=%s&nx=%d&ny=%d",
-                    base.date, base.time, grid.nx(), grid.ny());
-            url = hubBaseUrl + "/getVilageFcst" + query;
+                    base.date(), base.time(), grid.nx(), grid.ny());
             if ("header".equalsIgnoreCase(hubAuthMode)) {
-                final String requestUrl = url;
-                body = http.get()
-                        .uri(URI.create(requestUrl))
-                        .header(hubHeaderName, serviceKey)
-                        .retrieve()
-                        .onStatus(HttpStatusCode::isError, (r, res) -> {
-                            throw new RuntimeException("KMA(Hub) 호출 실패: HTTP " + res.getStatusCode() + " url=" + requestUrl);
-                        })
-                        .body(Map.class);
+                req.header(hubHeaderName, serviceKey);
             } else {
-                String sep = url.contains("?") ? "&" : "?";
-                url = url + sep + hubQueryName + "=" + encodeIfNeeded(serviceKey);
-                final String requestUrl = url;
-                body = http.get()
-                        .uri(URI.create(requestUrl))
-                        .retrieve()
-                        .onStatus(HttpStatusCode::isError, (r, res) -> {
-                            throw new RuntimeException("KMA(Hub) 호출 실패: HTTP " + res.getStatusCode() + " url=" + requestUrl);
-                        })
-                        .body(Map.class);
+                url = url + "&" + hubQueryName + "=" + encodeIfNeeded(serviceKey);
             }
         } else {
-            String key = encodeIfNeeded(serviceKey);
+            // data.go.kr
             url = String.format(Locale.ROOT,
-                    "%s/getVilageFcst?serviceKey=%s&pageNo=1&numOfRows=1000&dataType=JSON&base_date=%s&base_time=%s&nx=%d&ny=%d",
-                    dataBaseUrl, key, base.date, base.time, grid.nx(), grid.ny());
-            final String requestUrl = url;
-            body = http.get()
-                    .uri(URI.create(requestUrl))
-                    .retrieve()
-                    .onStatus(HttpStatusCode::isError, (req, res) -> {
-                        throw new RuntimeException("KMA 호출 실패: HTTP " + res.getStatusCode() + " url=" + requestUrl);
-                    })
-                    .body(Map.class);
+                    "%s/%s?serviceKey=%s&pageNo=1&numOfRows=1000&dataType=JSON&base_date=%s&base_time=%s&nx=%d&ny=%d",
+                    dataBaseUrl, operation, encodeIfNeeded(serviceKey), base.date(), base.time(), grid.nx(), grid.ny());
         }
+        // 오류 메시지에는 URL(serviceKey/authKey 포함)을 넣지 않는다
+        final String target = String.format(Locale.ROOT, "op=%s nx=%d ny=%d", operation, grid.nx(), grid.ny());
+        final String label = hub ? "KMA(Hub)" : "KMA";
+        return http.sendAsync(req.uri(URI.create(url)).build(), HttpResponse.BodyHandlers.ofByteArray())
+                .handle((res, err) -> {
+                    if (err != null) {
+                        Throwable cause = err instanceof CompletionException && err.getCause() != null ? err.getCause() : err;
+                        if (cause instanceof HttpTimeoutException) {
+                            throw new RuntimeException(label + " 호출 시간 초과 " + target, cause);
+                        }
+                        throw new RuntimeException(label + " 호출 실패: " + cause.getClass().getSimpleName() + " " + target, cause);
+                    }
+                    if (res.statusCode() >= 400) {
+                        throw new RuntimeException(label + " 호출 실패: HTTP " + res.statusCode() + " " + target);
+                    }
+                    return parser.apply(res.body());
+                });
+    }
 
-        java.util.Map<String, java.util.Map<String, String>> grouped = new java.util.LinkedHashMap<>();
-        try {
-            Map<?, ?> response = (Map<?, ?>) body.get("response");
-            Map<?, ?> header = (Map<?, ?>) response.get("header");
-            Object resultCode = header.get("resultCode");
-            if (resultCode != null && !"00".equals(resultCode.toString())) {
-                throw new RuntimeException("KMA 오류: code=" + resultCode + ", msg=" + header.get("resultMsg"));
+    private CacheEntry cachedFresh(String cacheKey) {
+        CacheEntry ce = cache.getIfPresent(cacheKey);
+        if (ce != null && ce.base.isCurrent(KmaPublishSchedule.now())) return ce;
+        return null;
+    }
+
+    /**
+     * 최신 기준시각 자료가 캐시에 없을 때:
+     * - 직전 자료(lastGood)가 있으면 즉시 그것을 돌려주고 갱신은 백그라운드에서 진행(stale-while-revalidate)
+     * - 없으면 갱신을 기다리되, 실패하면(차단기 열림 포함) 직전 자료가 생겼는지 다시 확인
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<Fetched<T>> load(String cacheKey, String staleKey, BaseTime base,
+                                                   boolean nocache, boolean allowStale, boolean prefetch,
+                                                   Supplier<CompletableFuture<T>> loader) {
+        if (!nocache) {
+            CacheEntry ce = cachedFresh(cacheKey);
+            if (ce != null) return CompletableFuture.completedFuture(new Fetched<>((T) ce.data, ce.base, false));
+        }
+        CompletableFuture<T> refresh = loadCoalesced(cacheKey, staleKey, base, nocache, prefetch, loader);
+        CacheEntry stale = allowStale ? lastGood.getIfPresent(staleKey) : null;
+        if (stale != null && !refresh.isDone()) {
+            staleServed.incrementAndGet();
+            return CompletableFuture.completedFuture(new Fetched<>((T) stale.data, stale.base, true));
+        }
+        return refresh.handle((value, err) -> {
+            if (err == null) return new Fetched<>(value, base, false);
+            CacheEntry fallback = allowStale ? lastGood.getIfPresent(staleKey) : null;
+            if (fallback != null) {
+                staleServed.incrementAndGet();
+                return new Fetched<>((T) fallback.data, fallback.base, true);
             }
-            Map<?, ?> bodyObj = (Map<?, ?>) response.get("body");
-            Map<?, ?> items = (Map<?, ?>) bodyObj.get("items");
-            @SuppressWarnings("unchecked")
-            java.util.List<java.util.Map<String, Object>> list = (java.util.List<java.util.Map<String, Object>>) items.get("item");
-            if (list != null) {
-                for (java.util.Map<String, Object> item : list) {
-                    String date = String.valueOf(item.get("fcstDate"));
-                    String time = String.valueOf(item.get("fcstTime"));
-                    String dateTime = date + time;
-                    String category = String.valueOf(item.get("category"));
-                    String value = String.valueOf(item.get("fcstValue"));
-                    grouped.computeIfAbsent(dateTime, k -> new java.util.HashMap<>()).put(category, value);
-                }
+            throw err instanceof CompletionException ce ? ce : new CompletionException(err);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> loadCoalesced(String cacheKey, String staleKey, BaseTime base, boolean nocache, boolean prefetch,
+                                                   Supplier<CompletableFuture<T>> loader) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inflight.putIfAbsent(cacheKey, mine);
+        if (existing != null) {
+            coalescedLoads.incrementAndGet();
+            return (CompletableFuture<T>) existing;
+        }
+        // 선행 호출이 방금 끝나 캐시에 채워졌을 수 있으므로 한 번 더 확인
+        CacheEntry cached = nocache ? null : cachedFresh(cacheKey);
+        if (cached != null) {
+            inflight.remove(cacheKey, mine);
+            mine.complete(cached.data);
+            return (CompletableFuture<T>) mine;
+        }
+        CompletableFuture<T> load;
+        if (!circuit.allowRequest()) {
+            load = CompletableFuture.failedFuture(new IllegalStateException("KMA 호출이 일시 차단되었습니다(연속 실패). 잠시 후 다시 시도하세요."));
+        } else {
+            try {
+                load = loader.get();
+            } catch (RuntimeException e) {
+                load = CompletableFuture.failedFuture(e);
             }
-        } catch (Exception e) {
-            throw new RuntimeException("KMA 응답 파싱 실패", e);
+            // 자료 없음(NO_DATA)은 KMA가 정상 응답한 것이고, 선조회 실패는 장애 판단에서 뺀다
+            load.whenComplete((value, err) -> {
+                if (err == null || noData(err)) circuit.recordSuccess();
+                else if (prefetch) circuit.recordIgnored();
+                else circuit.recordFailure();
+            });
         }
+        load.whenComplete((value, err) -> {
+            if (err == null) {
+                CacheEntry entry = new CacheEntry(value, base, estimateBytes(cacheKey) + estimateBytes(value));
+                cache.put(cacheKey, entry);
+                lastGood.put(staleKey, entry);
+                snapshotStore.append(new KmaSnapshotStore.Record(cacheKey, base, value));
+            }
+            inflight.remove(cacheKey, mine);
+            if (err != null) mine.completeExceptionally(err);
+            else mine.complete(value);
+        });
+        return (CompletableFuture<T>) mine;
+    }
 
-        java.util.List<java.util.Map<String, String>> out = new java.util.ArrayList<>();
-        for (var e : grouped.entrySet()) {
-            java.util.Map<String, String> m = new java.util.HashMap<>(e.getValue());
-            m.put("dateTime", e.getKey());
-            out.add(m);
+    private static boolean noData(Throwable err) {
+        for (Throwable t = err; t != null; t = t.getCause()) {
+            if (t instanceof KmaResponseParser.NoDataException) return true;
         }
-        cache.put(cacheKey, new CacheEntry(out, System.currentTimeMillis()));
-        return out;
+        return false;
     }
-    public Map<String, String> getUltraNowcast(double lat, double lon, boolean nocache) {
-        if (serviceKey == null || serviceKey.isBlank()) {
-            throw new IllegalStateException("KMA 서비스키가 설정되어 있지 않습니다. KMA_SERVICE_KEY 환경변수를 설정하세요.");
-        }
-        KmaGridConverter.Grid grid = KmaGridConverter.toGrid(lat, lon);
-        Base base = "hub".equalsIgnoreCase(provider) ? computeVilageBase() : computeUltraBase();
 
-        Map<String, Object> body;
-        String url;
+    // 재시작 직후 업스트림 호출이 몰리지 않도록 디스크 스냅샷에서 유효한 항목을 되살린다(기동은 막지 않음)
+    @EventListener(ApplicationReadyEvent.class)
+    public void restoreSnapshot() {
+        snapshotStore.restoreAsync(
+                r -> {
+                    CacheEntry entry = new CacheEntry(r.data(), r.base(), estimateBytes(r.key()) + estimateBytes(r.data()));
+                    cache.asMap().putIfAbsent(r.key(), entry);
+                    lastGood.asMap().putIfAbsent(r.key().substring(0, nthIndexOf(r.key(), '|', 4)), entry);
+                },
+                () -> cache.asMap().entrySet().stream()
+                        .map(e -> new KmaSnapshotStore.Record(e.getKey(), e.getValue().base, e.getValue().data))
+                        .toList());
+    }
 
-        String cacheKey = String.format(Locale.ROOT,
-                "%s|ultra|%d|%d|%s|%s", provider.toLowerCase(Locale.ROOT), grid.nx(), grid.ny(), base.date, base.time);
+    /** 비동기 호출 결과를 기다리고, 원래 예외를 그대로 던진다 */
+    static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
 
-        CacheEntry ce = cache.get(cacheKey);
-        if (!nocache && ce != null && (System.currentTimeMillis() - ce.ts) < TTL_MILLIS) {
-            @SuppressWarnings("unchecked")
-            Map<String, String> cached = (Map<String, String>) ce.data;
-            return cached;
+    private static int nthIndexOf(String s, char c, int n) {
+        int idx = -1;
+        for (int i = 0; i < n; i++) {
+            idx = s.indexOf(c, idx + 1);
+            if (idx < 0) return s.length();
         }
+        return idx;
+    }
 
-        if ("hub".equalsIgnoreCase(provider)) {
-            // Hub: 일반적으로 key를 헤더(x-api-key)로 전달. 필요 시 query로도 지원
-            String query = String.format(Locale.ROOT,
-                    "?pageNo=1&numOfRows=1000&dataType=JSON&base_date=%s&base_time=%s&nx=%d&ny=%d",
-                    base.date, base.time, grid.nx(), grid.ny());
-            // Hub에서는 단기예보(getVilageFcst)를 사용
-            url = hubBaseUrl + "/getVilageFcst" + query;
+    /** 진행 중인 호출에 합류해 업스트림 호출을 생략한 횟수 */
+    public long coalescedLoadCount() {
+        return coalescedLoads.get();
+    }
 
-            if ("header".equalsIgnoreCase(hubAuthMode)) {
-                final String requestUrl = url;
-                body = http.get()
-                        .uri(URI.create(requestUrl))
-                        .header(hubHeaderName, serviceKey)
-                        .retrieve()
-                        .onStatus(HttpStatusCode::isError, (r, res) -> {
-                            throw new RuntimeException("KMA(Hub) 호출 실패: HTTP " + res.getStatusCode() + " url=" + requestUrl);
-                        })
-                        .body(Map.class);
-            } else { // query
-                String sep = url.contains("?") ? "&" : "?";
-                url = url + sep + hubQueryName + "=" + encodeIfNeeded(serviceKey);
-                final String requestUrl = url;
-                body = http.get()
-                        .uri(URI.create(requestUrl))
-                        .retrieve()
-                        .onStatus(HttpStatusCode::isError, (r, res) -> {
-                            throw new RuntimeException("KMA(Hub) 호출 실패: HTTP " + res.getStatusCode() + " url=" + requestUrl);
-                        })
-                        .body(Map.class);
-            }
+    /** 최신 자료 대신 직전 자료를 돌려준 횟수 */
+    public long staleServedCount() {
+        return staleServed.get();
+    }
 
-        } else {
-            // data.go.kr
-            String key = encodeIfNeeded(serviceKey);
-            url = String.format(Locale.ROOT,
-                    "%s/getUltraSrtNcst?serviceKey=%s&pageNo=1&numOfRows=1000&dataType=JSON&base_date=%s&base_time=%s&nx=%d&ny=%d",
-                    dataBaseUrl, key, base.date, base.time, grid.nx(), grid.ny());
-
-            final String requestUrl = url;
-            body = http.get()
-                    .uri(URI.create(requestUrl))
-                    .retrieve()
-                    .onStatus(HttpStatusCode::isError, (req, res) -> {
-                        throw new RuntimeException("KMA 호출 실패: HTTP " + res.getStatusCode() + " url=" + requestUrl);
-                    })
-                    .body(Map.class);
-        }
+    /** 0 정상(CLOSED), 1 시험 호출(HALF_OPEN), 2 차단(OPEN) */
+    public int circuitState() {
+        return circuit.state().ordinal();
+    }
 
-        Map<String, String> result = new HashMap<>();
-        try {
-            Map<?, ?> response = (Map<?, ?>) body.get("response");
-            Map<?, ?> header = (Map<?, ?>) response.get("header");
-            Object resultCode = header.get("resultCode");
-            if (resultCode != null && !"00".equals(resultCode.toString())) {
-                throw new RuntimeException("KMA 오류: code=" + resultCode + ", msg=" + header.get("resultMsg"));
-            }
-            Map<?, ?> bodyObj = (Map<?, ?>) response.get("body");
-            Map<?, ?> items = (Map<?, ?>) bodyObj.get("items");
-            List<Map<String, Object>> list = (List<Map<String, Object>>) items.get("item");
-            if (list != null) {
-                for (Map<String, Object> item : list) {
-                    String category = String.valueOf(item.get("category"));
-                    Object v = item.get("obsrValue");
-                    if (v == null) v = item.get("fcstValue");
-                    String value = v == null ? null : String.valueOf(v);
-                    result.put(category, value);
-                }
+    public String provider() {
+        return provider.toLowerCase(Locale.ROOT);
+    }
+
+    public boolean isConfigured() {
+        return serviceKey != null && !serviceKey.isBlank();
+    }
+
+    /** 현재 날씨가 따르는 발표 일정(Hub는 단기예보에서 파생) */
+    public KmaPublishSchedule.Kind nowcastKind() {
+        return "hub".equalsIgnoreCase(provider) ? KmaPublishSchedule.Kind.VILAGE : KmaPublishSchedule.Kind.ULTRA;
+    }
+
+    /** 사용자 요청 기준 조회 빈도 상위 격자 */
+    public List<KmaGridConverter.Grid> hotCells(int limit) {
+        return hotCells.top(limit);
+    }
+
+    public void decayHotCells() {
+        hotCells.decay();
+    }
+
+    public long cacheEntryCount() {
+        return cache.estimatedSize();
+    }
+
+    /** 캐시에 적재된 항목의 추정 힙 사용량(바이트) */
+    public long cacheEstimatedBytes() {
+        return cache.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    // 64bit JVM(compressed oops) 기준 대략치. 컨테이너 메모리 산정용이므로 정확도보다 일관성이 중요
+    private static int estimateBytes(Object o) {
+        if (o == null) return 0;
+        if (o instanceof KmaForecast f) return f.estimatedBytes();
+        if (o instanceof String str) {
+            boolean latin1 = str.chars().allMatch(c -> c < 0x100);
+            return 40 + (latin1 ? str.length() : str.length() * 2);
+        }
+        if (o instanceof Map<?, ?> m) {
+            int sum = 48 + 16 * m.size();
+            for (var e : m.entrySet()) {
+                sum += 32 + estimateBytes(e.getKey()) + estimateBytes(e.getValue());
             }
-        } catch (Exception e) {
-            throw new RuntimeException("KMA 응답 파싱 실패", e);
+            return sum;
+        }
+        if (o instanceof Collection<?> c) {
+            int sum = 40 + 4 * c.size();
+            for (Object v : c) sum += estimateBytes(v);
+            return sum;
         }
-        cache.put(cacheKey, new CacheEntry(result, System.currentTimeMillis()));
-        return result;
+        return 16;
     }
 
     private static String encodeIfNeeded(String key) {
@@ -255,6 +472,10 @@ public class KmaClient {
         return URLEncoder.encode(key, StandardCharsets.UTF_8);
     }
 
+    public static String skyCodeToText(Integer code) {
+        return code == null ? "-" : skyCodeToText(String.valueOf(code));
+    }
+
     public static String skyCodeToText(String code) {
         // SKY: 1 맑음, 3 구름많음, 4 흐림
         return switch (code) {
@@ -264,40 +485,4 @@ public class KmaClient {
             default -> "-";
         };
     }
-
-    private record Base(String date, String time) {}
-
-    private static Base computeUltraBase() {
-        // 초단기실황 기준시간: 매시각 40분 이후에 최신자료 제공 → 분이 40 미만이면 이전시각 30분, 아니면 해당시각 30분 사용
-        LocalDateTime now = LocalDateTime.now(ZoneId.of("Asia/Seoul"));
-        int minute = now.getMinute();
-        LocalDateTime base = now;
-        if (minute < 40) {
-            base = now.minusHours(1);
-        }
-        String baseDate = base.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String baseTime = base.format(DateTimeFormatter.ofPattern("HH")) + "30"; // HH30
-        return new Base(baseDate, baseTime);
-    }
-
-    private static Base computeVilageBase() {
-        // 단기예보 기준시간: 02,05,08,11,14,17,20,23시 정시(HH00)
-        int[] hours = {2,5,8,11,14,17,20,23};
-        LocalDateTime now = LocalDateTime.now(ZoneId.of("Asia/Seoul"));
-        LocalDateTime candidate = now.withMinute(0).withSecond(0).withNano(0);
-        // 현재 시간이 목록보다 이르면 직전 슬롯으로
-        int h = now.getHour();
-        int chosen = -1;
-        for (int i = hours.length - 1; i >= 0; i--) {
-            if (h >= hours[i]) { chosen = hours[i]; break; }
-        }
-        if (chosen == -1) { // 00~01시는 전날 23시로
-            candidate = candidate.minusDays(1).withHour(23);
-        } else {
-            candidate = candidate.withHour(chosen);
-        }
-        String baseDate = candidate.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String baseTime = candidate.format(DateTimeFormatter.ofPattern("HH")) + "00"; // HH00
-        return new Base(baseDate, baseTime);
-    }
 }
@@ -0,0 +1,267 @@
+package com.example.weather.service;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+// 단기예보 캐시용 열(column) 지향 모델. 수신 시 한 번만 숫자로 변환해 두고 요청마다 문자열을 다시 파싱하지 않는다.
+// 시각은 KST 기준 epoch-hour(1970-01-01T00:00 이후 경과 시간), 결측값은 NaN / MISSING_BYTE.
+public final class KmaForecast {
+
+    public static final byte MISSING_BYTE = -1;
+
+    private final int size;
+    private final int[] epochHours;
+    private final float[] tmp;
+    private final float[] pcp;
+    private final float[] wsd;
+    private final byte[] pop;
+    private final byte[] reh;
+    private final byte[] sky;
+
+    private KmaForecast(int size, int[] epochHours, float[] tmp, float[] pcp, float[] wsd, byte[] pop, byte[] reh, byte[] sky) {
+        this.size = size;
+        this.epochHours = epochHours;
+        this.tmp = tmp;
+        this.pcp = pcp;
+        this.wsd = wsd;
+        this.pop = pop;
+        this.reh = reh;
+        this.sky = sky;
+    }
+
+    private KmaForecast(Builder b) {
+        this.size = b.size;
+        this.epochHours = Arrays.copyOf(b.epochHours, b.size);
+        this.tmp = Arrays.copyOf(b.tmp, b.size);
+        this.pcp = Arrays.copyOf(b.pcp, b.size);
+        this.wsd = Arrays.copyOf(b.wsd, b.size);
+        this.pop = Arrays.copyOf(b.pop, b.size);
+        this.reh = Arrays.copyOf(b.reh, b.size);
+        this.sky = Arrays.copyOf(b.sky, b.size);
+    }
+
+    public int size() { return size; }
+
+    public int epochHour(int i) { return epochHours[i]; }
+
+    /** yyyyMMddHHmm (KMA fcstDate + fcstTime 형식) */
+    public String dateTime(int i) {
+        int eh = epochHours[i];
+        LocalDate d = LocalDate.ofEpochDay(Math.floorDiv(eh, 24));
+        int h = Math.floorMod(eh, 24);
+        char[] c = new char[12];
+        int y = d.getYear(), m = d.getMonthValue(), day = d.getDayOfMonth();
+        c[0] = (char) ('0' + y / 1000 % 10); c[1] = (char) ('0' + y / 100 % 10);
+        c[2] = (char) ('0' + y / 10 % 10);   c[3] = (char) ('0' + y % 10);
+        c[4] = (char) ('0' + m / 10);        c[5] = (char) ('0' + m % 10);
+        c[6] = (char) ('0' + day / 10);      c[7] = (char) ('0' + day % 10);
+        c[8] = (char) ('0' + h / 10);        c[9] = (char) ('0' + h % 10);
+        c[10] = '0'; c[11] = '0';
+        return new String(c);
+    }
+
+    public Double temperature(int i) { return toDouble(tmp[i]); }
+
+    public Double precipitation(int i) { return toDouble(pcp[i]); }
+
+    public Double windSpeed(int i) { return toDouble(wsd[i]); }
+
+    public Integer pop(int i) { return toInt(pop[i]); }
+
+    public Integer humidity(int i) { return toInt(reh[i]); }
+
+    /** SKY 코드(1 맑음, 3 구름많음, 4 흐림), 없으면 null */
+    public Integer skyCode(int i) { return toInt(sky[i]); }
+
+    /** epochHour에 가장 가까운 예보 행(같은 거리면 이른 시각), 비어 있으면 -1 */
+    public int indexNearest(int epochHour) {
+        int best = -1;
+        long bestDist = Long.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            long d = Math.abs((long) epochHours[i] - epochHour);
+            if (d < bestDist || (d == bestDist && epochHours[i] < epochHours[best])) {
+                best = i;
+                bestDist = d;
+            }
+        }
+        return best;
+    }
+
+    /** 캐시 용량 산정을 위한 추정 힙 사용량 */
+    public int estimatedBytes() {
+        int arrays = 7 * 16;
+        return 48 + arrays + size * (4 + 4 * 3 + 3);
+    }
+
+    /** 스냅샷 파일용 직렬화: size, 시각 열, float 열(TMP/PCP/WSD), byte 열(POP/REH/SKY) 순 */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) out.writeInt(epochHours[i]);
+        for (float[] col : new float[][]{tmp, pcp, wsd}) {
+            for (int i = 0; i < size; i++) out.writeFloat(col[i]);
+        }
+        out.write(pop, 0, size);
+        out.write(reh, 0, size);
+        out.write(sky, 0, size);
+    }
+
+    public static KmaForecast readFrom(ByteBuffer in) {
+        int n = in.getInt();
+        if (n < 0 || n > in.remaining()) throw new IllegalStateException("invalid forecast size " + n);
+        int[] eh = new int[n];
+        for (int i = 0; i < n; i++) eh[i] = in.getInt();
+        float[][] cols = new float[3][n];
+        for (float[] col : cols) {
+            for (int i = 0; i < n; i++) col[i] = in.getFloat();
+        }
+        byte[] pop = new byte[n], reh = new byte[n], sky = new byte[n];
+        in.get(pop);
+        in.get(reh);
+        in.get(sky);
+        return new KmaForecast(n, eh, cols[0], cols[1], cols[2], pop, reh, sky);
+    }
+
+    // KMA 수치는 소수 첫째 자리까지이므로 float 오차를 제거해 돌려준다(예: 2.3f → 2.3)
+    private static Double toDouble(float v) {
+        return Float.isNaN(v) ? null : Math.round(v * 10f) / 10.0;
+    }
+
+    private static Integer toInt(byte v) {
+        return v == MISSING_BYTE ? null : (int) v;
+    }
+
+    public static int epochHour(LocalDate date, int hour) {
+        return (int) (date.toEpochDay() * 24 + hour);
+    }
+
+    public static Builder builder() { return new Builder(); }
+
+    public static final class Builder {
+        private int size;
+        private int[] epochHours = new int[0];
+        private float[] tmp = new float[0];
+        private float[] pcp = new float[0];
+        private float[] wsd = new float[0];
+        private byte[] pop = new byte[0];
+        private byte[] reh = new byte[0];
+        private byte[] sky = new byte[0];
+        private int lastRow = -1;
+
+        private Builder() {}
+
+        /**
+         * fcstDate(yyyyMMdd) + fcstTime(HHmm) 항목의 값을 해당 시각 행에 기록한다.
+         * 알 수 없는 카테고리는 무시한다.
+         */
+        public Builder put(String fcstDate, String fcstTime, String category, String value) {
+            if (fcstDate == null || fcstTime == null || category == null) return this;
+            int eh = parseEpochHour(fcstDate, fcstTime);
+            if (eh == Integer.MIN_VALUE) return this;
+            int row = rowFor(eh);
+            switch (category) {
+                case "TMP" -> tmp[row] = parseFloat(value);
+                case "PCP" -> pcp[row] = parsePrecipitation(value);
+                case "WSD" -> wsd[row] = parseFloat(value);
+                case "POP" -> pop[row] = parseByte(value);
+                case "REH" -> reh[row] = parseByte(value);
+                case "SKY" -> sky[row] = parseByte(value);
+                default -> { }
+            }
+            return this;
+        }
+
+        public KmaForecast build() {
+            sortByTime();
+            return new KmaForecast(this);
+        }
+
+        // 행은 시각 오름차순을 보장한다(ForecastSelector가 시각으로 바로 찾아감). KMA 응답은 대개 이미 정렬돼 있다
+        private void sortByTime() {
+            boolean sorted = true;
+            for (int i = 1; i < size && sorted; i++) sorted = epochHours[i - 1] < epochHours[i];
+            if (sorted) return;
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> Integer.compare(epochHours[a], epochHours[b]));
+            int[] eh = new int[size];
+            float[] t = new float[size], p = new float[size], w = new float[size];
+            byte[] po = new byte[size], r = new byte[size], sk = new byte[size];
+            for (int i = 0; i < size; i++) {
+                int o = order[i];
+                eh[i] = epochHours[o]; t[i] = tmp[o]; p[i] = pcp[o]; w[i] = wsd[o];
+                po[i] = pop[o]; r[i] = reh[o]; sk[i] = sky[o];
+            }
+            epochHours = eh; tmp = t; pcp = p; wsd = w; pop = po; reh = r; sky = sk;
+            lastRow = -1;
+        }
+
+        // KMA 응답은 시각 순으로 정렬되어 오므로 대부분 직전 행에 적중한다
+        private int rowFor(int eh) {
+            if (lastRow >= 0 && epochHours[lastRow] == eh) return lastRow;
+            for (int i = size - 1; i >= 0; i--) {
+                if (epochHours[i] == eh) return lastRow = i;
+            }
+            if (size == epochHours.length) grow();
+            epochHours[size] = eh;
+            tmp[size] = Float.NaN;
+            pcp[size] = Float.NaN;
+            wsd[size] = Float.NaN;
+            pop[size] = MISSING_BYTE;
+            reh[size] = MISSING_BYTE;
+            sky[size] = MISSING_BYTE;
+            return lastRow = size++;
+        }
+
+        private void grow() {
+            int cap = Math.max(16, epochHours.length * 2);
+            epochHours = Arrays.copyOf(epochHours, cap);
+            tmp = Arrays.copyOf(tmp, cap);
+            pcp = Arrays.copyOf(pcp, cap);
+            wsd = Arrays.copyOf(wsd, cap);
+            pop = Arrays.copyOf(pop, cap);
+            reh = Arrays.copyOf(reh, cap);
+            sky = Arrays.copyOf(sky, cap);
+        }
+    }
+
+    private static int parseEpochHour(String date, String time) {
+        if (date.length() != 8 || time.length() < 2) return Integer.MIN_VALUE;
+        try {
+            int y = Integer.parseInt(date, 0, 4, 10);
+            int m = Integer.parseInt(date, 4, 6, 10);
+            int d = Integer.parseInt(date, 6, 8, 10);
+            int h = Integer.parseInt(time, 0, 2, 10);
+            return epochHour(LocalDate.of(y, m, d), h);
+        } catch (RuntimeException e) {
+            return Integer.MIN_VALUE;
+        }
+    }
+
+    private static float parseFloat(String v) {
+        if (v == null || v.isBlank() || "-".equals(v)) return Float.NaN;
+        try { return Float.parseFloat(v); } catch (NumberFormatException e) { return Float.NaN; }
+    }
+
+    private static byte parseByte(String v) {
+        if (v == null || v.isBlank() || "-".equals(v)) return MISSING_BYTE;
+        try {
+            int n = Integer.parseInt(v.trim());
+            return (n < 0 || n > Byte.MAX_VALUE) ? MISSING_BYTE : (byte) n;
+        } catch (NumberFormatException e) {
+            return MISSING_BYTE;
+        }
+    }
+
+    // "강수없음" / "1mm 미만" → 0, "1.0mm" → 1.0, 범위 표기 등 해석 불가 → 결측
+    private static float parsePrecipitation(String p) {
+        if (p == null || p.isBlank() || "-".equals(p)) return Float.NaN;
+        String s = p.trim();
+        if (s.contains("없음")) return 0f;
+        if (s.contains("미만")) return 0f; // 보수적으로 0 처리
+        s = s.replace("mm", "").trim();
+        return parseFloat(s);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.weather.service;
+
+import com.example.weather.util.KmaGridConverter;
+import com.example.weather.util.KmaPublishSchedule;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 발표 직후 자주 조회되는 격자를 미리 받아 두어 사용자 요청이 항상 캐시에 적중하도록 한다
+@Component
+public class KmaPrefetcher {
+
+    private static final Logger log = LoggerFactory.getLogger(KmaPrefetcher.class);
+
+    private final KmaClient kmaClient;
+    private final boolean enabled;
+    private final int hotCellLimit;
+    private final long delaySeconds;
+    private final ExecutorService executor;
+    private final Map<KmaPublishSchedule.Kind, String> lastPrefetched = new EnumMap<>(KmaPublishSchedule.Kind.class);
+
+    public KmaPrefetcher(
+            KmaClient kmaClient,
+            @Value("${kma.prefetch.enabled:true}") boolean enabled,
+            @Value("${kma.prefetch.hot-cells:50}") int hotCellLimit,
+            @Value("${kma.prefetch.concurrency:4}") int concurrency,
+            @Value("${kma.prefetch.delay-seconds:60}") long delaySeconds
+    ) {
+        this.kmaClient = kmaClient;
+        this.enabled = enabled;
+        this.hotCellLimit = hotCellLimit;
+        this.delaySeconds = delaySeconds;
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, concurrency), r -> {
+            Thread t = new Thread(r, "kma-prefetch-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${kma.prefetch.check-interval-ms:30000}", initialDelayString = "${kma.prefetch.check-interval-ms:30000}")
+    public void tick() {
+        if (!enabled || !kmaClient.isConfigured()) return;
+        LocalDateTime now = KmaPublishSchedule.now();
+        for (KmaPublishSchedule.Kind kind : KmaPublishSchedule.Kind.values()) {
+            KmaPublishSchedule.BaseTime base = KmaPublishSchedule.current(kind, now);
+            String slot = base.date() + base.time();
+            if (slot.equals(lastPrefetched.get(kind))) continue;
+            // 새 기준시각 자료가 제공되기 시작한 뒤(단기예보 HH:10, 실황 HH:40) delaySeconds 만큼 기다렸다가 받는다
+            if (!base.equals(KmaPublishSchedule.current(kind, now.minusSeconds(delaySeconds)))) continue;
+            // 모두 실패하면(아직 미발표 등) 다음 주기에 다시 시도. 선조회 실패는 KMA 차단기에 세지 않는다
+            if (prefetch(kind)) lastPrefetched.put(kind, slot);
+        }
+    }
+
+    private boolean prefetch(KmaPublishSchedule.Kind kind) {
+        List<KmaGridConverter.Grid> cells = kmaClient.hotCells(hotCellLimit);
+        if (cells.isEmpty()) return true;
+        boolean vilage = kind == KmaPublishSchedule.Kind.VILAGE;
+        // Hub의 현재 날씨는 단기예보에서 파생되므로 별도로 받을 필요가 없다
+        boolean nowcast = kind == KmaPublishSchedule.Kind.ULTRA && kmaClient.nowcastKind() == kind;
+        long started = System.nanoTime();
+        AtomicInteger failed = new AtomicInteger();
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(cells.size());
+        for (KmaGridConverter.Grid grid : cells) {
+            tasks.add(CompletableFuture.runAsync(() -> {
+                try {
+                    if (vilage) KmaClient.join(kmaClient.refreshVilageForecast(grid));
+                    if (nowcast) KmaClient.join(kmaClient.refreshUltraNowcast(grid));
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                    log.debug("KMA prefetch failed nx={} ny={}: {}", grid.nx(), grid.ny(), e.getMessage());
+                }
+            }, executor));
+        }
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+        log.info("KMA prefetch kind={} cells={} failed={} took={}ms",
+                kind, cells.size(), failed.get(), (System.nanoTime() - started) / 1_000_000);
+        if (failed.get() == cells.size()) return false;
+        if (vilage) kmaClient.decayHotCells();
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
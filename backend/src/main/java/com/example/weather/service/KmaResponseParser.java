@@ -0,0 +1,134 @@
+package com.example.weather.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+// KMA JSON 응답을 스트리밍(JsonParser)으로 한 번에 읽어 최종 구조로 변환한다.
+// response.header.resultCode / response.body.items.item[] 외의 필드는 건너뛴다.
+final class KmaResponseParser {
+    private KmaResponseParser() {}
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    // 해당 기준시각 자료가 아직 없음(resultCode 03). 업스트림 장애가 아니다
+    private static final String NO_DATA = "03";
+
+    static final class NoDataException extends RuntimeException {
+        NoDataException(String message) {
+            super(message);
+        }
+    }
+
+    private interface ItemSink {
+        void accept(String fcstDate, String fcstTime, String category, String value);
+    }
+
+    /** 단기예보: 예보시각별 행으로 바로 적재한다 */
+    static KmaForecast parseVilage(byte[] body) {
+        KmaForecast.Builder builder = KmaForecast.builder();
+        parse(body, builder::put);
+        return builder.build();
+    }
+
+    /** 초단기실황: 카테고리별 관측값(없으면 예보값) */
+    static Map<String, String> parseNowcast(byte[] body) {
+        Map<String, String> result = new HashMap<>();
+        parse(body, (date, time, category, value) -> result.put(category, value));
+        return result;
+    }
+
+    private static void parse(byte[] body, ItemSink sink) {
+        try {
+            if (body == null) throw new IllegalStateException("empty body");
+            String resultCode = null;
+            String resultMsg = null;
+            boolean sawHeader = false;
+            try (JsonParser p = JSON.createParser(body)) {
+                expect(p.nextToken(), JsonToken.START_OBJECT);
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String root = p.currentName();
+                    p.nextToken();
+                    if (!"response".equals(root)) { p.skipChildren(); continue; }
+                    expect(p.currentToken(), JsonToken.START_OBJECT);
+                    while (p.nextToken() == JsonToken.FIELD_NAME) {
+                        String section = p.currentName();
+                        p.nextToken();
+                        if ("header".equals(section) && p.currentToken() == JsonToken.START_OBJECT) {
+                            sawHeader = true;
+                            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                                String f = p.currentName();
+                                p.nextToken();
+                                if ("resultCode".equals(f)) resultCode = p.getValueAsString();
+                                else if ("resultMsg".equals(f)) resultMsg = p.getValueAsString();
+                                else p.skipChildren();
+                            }
+                            // 결과 코드가 오류면 본문을 읽지 않는다
+                            checkResult(resultCode, resultMsg);
+                        } else if ("body".equals(section) && p.currentToken() == JsonToken.START_OBJECT) {
+                            readBody(p, sink);
+                        } else {
+                            p.skipChildren();
+                        }
+                    }
+                }
+            }
+            if (!sawHeader) throw new IllegalStateException("response.header 없음");
+        } catch (NoDataException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("KMA 응답 파싱 실패", e);
+        }
+    }
+
+    private static void readBody(JsonParser p, ItemSink sink) throws IOException {
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String f = p.currentName();
+            p.nextToken();
+            if (!"items".equals(f) || p.currentToken() != JsonToken.START_OBJECT) { p.skipChildren(); continue; }
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String g = p.currentName();
+                p.nextToken();
+                if (!"item".equals(g) || p.currentToken() != JsonToken.START_ARRAY) { p.skipChildren(); continue; }
+                while (p.nextToken() == JsonToken.START_OBJECT) {
+                    readItem(p, sink);
+                }
+            }
+        }
+    }
+
+    private static void readItem(JsonParser p, ItemSink sink) throws IOException {
+        String date = null, time = null, category = null, fcstValue = null, obsrValue = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String f = p.currentName();
+            JsonToken t = p.nextToken();
+            if (t == JsonToken.START_OBJECT || t == JsonToken.START_ARRAY) { p.skipChildren(); continue; }
+            switch (f) {
+                case "fcstDate" -> date = p.getValueAsString();
+                case "fcstTime" -> time = p.getValueAsString();
+                case "category" -> category = p.getValueAsString();
+                case "fcstValue" -> fcstValue = p.getValueAsString();
+                case "obsrValue" -> obsrValue = p.getValueAsString();
+                default -> { }
+            }
+        }
+        sink.accept(date, time, category, obsrValue != null ? obsrValue : fcstValue);
+    }
+
+    private static void checkResult(String resultCode, String resultMsg) {
+        if (NO_DATA.equals(resultCode)) {
+            throw new NoDataException("KMA 자료 없음: msg=" + resultMsg);
+        }
+        if (resultCode != null && !"00".equals(resultCode)) {
+            throw new RuntimeException("KMA 오류: code=" + resultCode + ", msg=" + resultMsg);
+        }
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) {
+        if (actual != expected) throw new IllegalStateException("unexpected token " + actual + " (expected " + expected + ")");
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.weather.service;
+
+import com.example.weather.util.KmaPublishSchedule;
+import com.example.weather.util.KmaPublishSchedule.BaseTime;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// KMA 캐시 항목을 로컬 파일(append log)에 남겨 재시작 직후에도 캐시를 채운 상태로 시작한다.
+// 레코드: [int 길이][byte 종류][key][kind][base_date][base_time][payload]. 같은 key는 나중 레코드가 우선한다.
+// 쓰기는 단일 스레드에서 순차 처리하고, 읽기는 파일을 메모리 매핑해 기동 후 백그라운드에서 수행한다.
+@Component
+public class KmaSnapshotStore {
+
+    private static final Logger log = LoggerFactory.getLogger(KmaSnapshotStore.class);
+
+    private static final int MAGIC = 0x4B4D4153; // "KMAS"
+    private static final int VERSION = 1;
+    private static final byte TYPE_FORECAST = 1;
+    private static final byte TYPE_NOWCAST = 2;
+
+    public record Record(String key, BaseTime base, Object data) {}
+
+    private final boolean enabled;
+    private final Path path;
+    private final long maxBytes;
+    private final ExecutorService writer;
+    private FileChannel channel;
+    private Supplier<Collection<Record>> current = List::of;
+
+    public KmaSnapshotStore(
+            @Value("${kma.snapshot.enabled:true}") boolean enabled,
+            @Value("${kma.snapshot.path:./data/kma-cache.snap}") String path,
+            @Value("${kma.snapshot.max-bytes:67108864}") long maxBytes
+    ) {
+        this.enabled = enabled;
+        this.path = Path.of(path);
+        this.maxBytes = maxBytes;
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "kma-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * 백그라운드에서 스냅샷을 읽어 아직 유효한(기준시각이 대체되지 않은) 레코드만 전달한 뒤,
+     * 유효 레코드만 남도록 파일을 다시 쓴다. 기동을 막지 않는다.
+     */
+    public void restoreAsync(Consumer<Record> sink, Supplier<Collection<Record>> current) {
+        if (!enabled) return;
+        this.current = current;
+        writer.execute(() -> {
+            long started = System.nanoTime();
+            Map<String, Record> live = read();
+            live.values().forEach(sink);
+            try {
+                rewrite(live.values());
+            } catch (IOException e) {
+                log.warn("KMA snapshot rewrite failed: {}", e.getMessage());
+                disable();
+            }
+            log.info("KMA snapshot restored entries={} took={}ms", live.size(), (System.nanoTime() - started) / 1_000_000);
+        });
+    }
+
+    public void append(Record record) {
+        if (!enabled) return;
+        byte[] bytes;
+        try {
+            bytes = encode(record);
+        } catch (IOException | RuntimeException e) {
+            return;
+        }
+        if (bytes == null) return;
+        writer.execute(() -> {
+            if (channel == null) return; // 복원 전 또는 비활성 상태
+            try {
+                channel.write(ByteBuffer.wrap(bytes));
+                // 파일이 상한을 넘으면 현재 캐시 내용만으로 다시 쓴다
+                if (channel.size() > maxBytes) rewrite(current.get());
+            } catch (IOException e) {
+                log.warn("KMA snapshot append failed: {}", e.getMessage());
+                disable();
+            }
+        });
+    }
+
+    private Map<String, Record> read() {
+        Map<String, Record> live = new LinkedHashMap<>();
+        if (!Files.isRegularFile(path)) return live;
+        LocalDateTime now = KmaPublishSchedule.now();
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < 8 || size > Integer.MAX_VALUE) return live;
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buf.getInt() != MAGIC || buf.getInt() != VERSION) return live;
+            while (buf.remaining() >= 4) {
+                int len = buf.getInt();
+                if (len <= 0 || len > buf.remaining()) break; // 기록 도중 중단된 꼬리 레코드
+                ByteBuffer rec = buf.slice(buf.position(), len);
+                buf.position(buf.position() + len);
+                try {
+                    byte type = rec.get();
+                    String key = readString(rec);
+                    KmaPublishSchedule.Kind kind = KmaPublishSchedule.Kind.values()[rec.get()];
+                    BaseTime base = KmaPublishSchedule.of(kind, readString(rec), readString(rec));
+                    if (!base.isCurrent(now)) {
+                        live.remove(key);
+                        continue;
+                    }
+                    Object data = type == TYPE_FORECAST ? KmaForecast.readFrom(rec) : readNowcast(rec);
+                    live.put(key, new Record(key, base, data));
+                } catch (RuntimeException e) {
+                    log.debug("KMA snapshot record skipped: {}", e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("KMA snapshot read failed: {}", e.getMessage());
+        }
+        return live;
+    }
+
+    private void rewrite(Collection<Record> records) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ch.write(ByteBuffer.allocate(8).putInt(MAGIC).putInt(VERSION).flip());
+            for (Record r : records) {
+                byte[] bytes = encode(r);
+                if (bytes != null) ch.write(ByteBuffer.wrap(bytes));
+            }
+        }
+        if (channel != null) channel.close();
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static byte[] encode(Record r) throws IOException {
+        byte type;
+        if (r.data() instanceof KmaForecast) type = TYPE_FORECAST;
+        else if (r.data() instanceof Map<?, ?>) type = TYPE_NOWCAST;
+        else return null;
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bos);
+        out.writeInt(0); // 길이 자리
+        out.writeByte(type);
+        writeString(out, r.key());
+        out.writeByte(r.base().kind().ordinal());
+        writeString(out, r.base().date());
+        writeString(out, r.base().time());
+        if (type == TYPE_FORECAST) {
+            ((KmaForecast) r.data()).writeTo(out);
+        } else {
+            Map<?, ?> m = (Map<?, ?>) r.data();
+            out.writeInt(m.size());
+            for (var e : m.entrySet()) {
+                writeString(out, String.valueOf(e.getKey()));
+                writeString(out, e.getValue() == null ? null : String.valueOf(e.getValue()));
+            }
+        }
+        out.flush();
+        byte[] bytes = bos.toByteArray();
+        ByteBuffer.wrap(bytes).putInt(0, bytes.length - 4);
+        return bytes;
+    }
+
+    private static Map<String, String> readNowcast(ByteBuffer in) {
+        int n = in.getInt();
+        Map<String, String> m = new HashMap<>(Math.max(4, n * 2));
+        for (int i = 0; i < n; i++) {
+            m.put(readString(in), readString(in));
+        }
+        return m;
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeShort(-1);
+            return;
+        }
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(b.length);
+        out.write(b);
+    }
+
+    private static String readString(ByteBuffer in) {
+        short len = in.getShort();
+        if (len < 0) return null;
+        byte[] b = new byte[len];
+        in.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private void disable() {
+        try {
+            if (channel != null) channel.close();
+        } catch (IOException ignored) { }
+        channel = null;
+    }
+
+    @PreDestroy
+    public void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        disable();
+    }
+}
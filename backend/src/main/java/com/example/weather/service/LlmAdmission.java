@@ -0,0 +1,191 @@
+package com.example.weather.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * LLM 동시 생성 수 제한. 한도를 넘는 요청은 우선순위 대기열에서 기다리고,
+ * 대기열이 가득 찼거나 대기 시간이 지나면 바로 거절(Rejected)한다. 자리가 나면 우선순위가 높은 요청부터 넘겨준다.
+ * 대기열이 가득 찼을 때 더 높은 우선순위 요청이 오면 가장 낮은 대기 요청을 밀어낸다.
+ * BACKGROUND(미리 만드는 요약)는 대화 요청에 항상 양보한다.
+ */
+@Component
+public class LlmAdmission {
+
+    /** 낮은 ordinal이 먼저 */
+    public enum Priority { SHORT, NORMAL, BACKGROUND }
+
+    public static class Rejected extends RuntimeException {
+        public Rejected(String message) {
+            super(message);
+        }
+    }
+
+    /** 생성이 끝나면 반드시 close해 자리를 돌려준다 */
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final class Waiter {
+        final Priority priority;
+        final long seq;
+        final Condition granted;
+        boolean admitted;
+        boolean evicted;
+
+        Waiter(Priority priority, long seq, Condition granted) {
+            this.priority = priority;
+            this.seq = seq;
+            this.granted = granted;
+        }
+    }
+
+    private final int maxConcurrent;
+    private final int queueCapacity;
+    private final long queueTimeoutMs;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TreeSet<Waiter> waiters = new TreeSet<>(
+            Comparator.comparing((Waiter w) -> w.priority).thenComparingLong(w -> w.seq));
+    private int inFlight;
+    private long seq;
+
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong rejectedFull = new AtomicLong();
+    private final AtomicLong rejectedTimeout = new AtomicLong();
+
+    public LlmAdmission(@Value("${chat.llm.max-concurrent:2}") int maxConcurrent,
+                        @Value("${chat.llm.queue-capacity:16}") int queueCapacity,
+                        @Value("${chat.llm.queue-timeout-ms:3000}") long queueTimeoutMs) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.queueCapacity = Math.max(0, queueCapacity);
+        this.queueTimeoutMs = queueTimeoutMs;
+    }
+
+    public Permit acquire(Priority priority) {
+        return acquire(priority, queueTimeoutMs);
+    }
+
+    /** timeoutMs 안에 자리를 얻지 못하면 Rejected. 0이면 기다리지 않는다 */
+    public Permit acquire(Priority priority, long timeoutMs) {
+        lock.lock();
+        try {
+            if (inFlight < limitFor(priority) && (waiters.isEmpty() || waiters.first().priority.compareTo(priority) > 0)) {
+                inFlight++;
+                admitted.incrementAndGet();
+                return newPermit();
+            }
+            if (timeoutMs <= 0) {
+                rejectedFull.incrementAndGet();
+                throw new Rejected("LLM 요청이 많아 처리할 수 없습니다.");
+            }
+            if (waiters.size() >= queueCapacity) {
+                Waiter worst = waiters.isEmpty() ? null : waiters.last();
+                if (worst == null || worst.priority.ordinal() <= priority.ordinal()) {
+                    rejectedFull.incrementAndGet();
+                    throw new Rejected("LLM 대기열이 가득 찼습니다.");
+                }
+                waiters.remove(worst);
+                worst.evicted = true;
+                worst.granted.signal();
+            }
+            Waiter w = new Waiter(priority, seq++, lock.newCondition());
+            waiters.add(w);
+            long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            try {
+                while (!w.admitted && !w.evicted && remaining > 0) {
+                    remaining = w.granted.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (w.admitted) {
+                admitted.incrementAndGet();
+                if (!Thread.currentThread().isInterrupted()) return newPermit();
+                releaseLocked();
+                throw new Rejected("LLM 대기 중 중단되었습니다.");
+            }
+            waiters.remove(w);
+            if (w.evicted) {
+                rejectedFull.incrementAndGet();
+                throw new Rejected("LLM 대기열이 가득 찼습니다.");
+            }
+            rejectedTimeout.incrementAndGet();
+            throw new Rejected("LLM 대기 시간이 초과되었습니다.");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 백그라운드 작업은 바로 들어갈 때 한 자리를 대화 요청 몫으로 남겨 둔다(완전히 비어 있으면 허용)
+    private int limitFor(Priority priority) {
+        if (priority != Priority.BACKGROUND || inFlight == 0) return maxConcurrent;
+        return maxConcurrent - 1;
+    }
+
+    private Permit newPermit() {
+        boolean[] closed = new boolean[1];
+        return () -> {
+            lock.lock();
+            try {
+                if (closed[0]) return;
+                closed[0] = true;
+                releaseLocked();
+            } finally {
+                lock.unlock();
+            }
+        };
+    }
+
+    // 대기자가 있으면 자리를 그대로 넘기고(inFlight 유지), 없으면 반납
+    private void releaseLocked() {
+        Waiter next = waiters.pollFirst();
+        if (next != null) {
+            next.admitted = true;
+            next.granted.signal();
+        } else {
+            inFlight--;
+        }
+    }
+
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int queued() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int maxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public long admittedCount() {
+        return admitted.get();
+    }
+
+    public long rejectedFullCount() {
+        return rejectedFull.get();
+    }
+
+    public long rejectedTimeoutCount() {
+        return rejectedTimeout.get();
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.weather.service;
+
+import com.example.weather.util.KmaPublishSchedule;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LLM 답변 캐시. 같은 기준시각 동안 같은 질문(정규화)·의도·격자·프롬프트에 넣은 날씨 요약이면 답도 같다고 보고 재사용한다.
+ * 항목은 날씨 스냅샷의 다음 발표 시각(날씨 자료가 없으면 현재 단기예보 발표분의 만료 시각)에 만료된다.
+ */
+@Component
+public class LlmAnswerCache {
+
+    private record Key(String question, int dayOffset, String window, boolean forecast, boolean current,
+                       String place, String data) {}
+
+    private record Answer(String text, long validUntilEpochMillis) {}
+
+    private final Cache<Key, Answer> cache;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public LlmAnswerCache(@Value("${chat.answer-cache.max-entries:10000}") long maxEntries) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<Key, Answer>() {
+                    @Override
+                    public long expireAfterCreate(Key key, Answer a, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0L, a.validUntilEpochMillis - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Key key, Answer a, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, a, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Key key, Answer a, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /** data: 프롬프트에 실제로 넣은 날씨 요약(없으면 빈 문자열) */
+    public String get(ChatContext ctx, String data) {
+        if (!cacheable(ctx)) return null;
+        Answer a = cache.getIfPresent(key(ctx, data));
+        if (a == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return a.text;
+    }
+
+    /** 날씨 조회 실패나 직전(stale) 자료로 만든 답은 저장하지 않는다 */
+    public void put(ChatContext ctx, String data, String answer) {
+        if (!cacheable(ctx) || answer == null || answer.isBlank()) return;
+        KmaPublishSchedule.BaseTime base = ctx.base() != null
+                ? ctx.base()
+                : KmaPublishSchedule.current(KmaPublishSchedule.Kind.VILAGE);
+        cache.put(key(ctx, data), new Answer(answer, base.validUntilEpochMillis()));
+    }
+
+    public long hitCount() {
+        return hits.get();
+    }
+
+    public long missCount() {
+        return misses.get();
+    }
+
+    public long entryCount() {
+        return cache.estimatedSize();
+    }
+
+    private static boolean cacheable(ChatContext ctx) {
+        return !ctx.weatherFailed() && !ctx.weatherStale();
+    }
+
+    private static Key key(ChatContext ctx, String data) {
+        IntentParser.Analysis a = ctx.analysis();
+        String place;
+        if (ctx.grid() != null) place = ctx.grid().nx() + "," + ctx.grid().ny();
+        else place = ctx.city() != null ? ctx.city() : "";
+        String base = ctx.base() != null ? ctx.base().date() + ctx.base().time() : "";
+        return new Key(normalize(ctx.lastUser()), a.intent().dayOffset, a.intent().window,
+                a.wantForecast(), a.wantCurrent(), place, base + "|" + data);
+    }
+
+    /** 소문자화, 연속 공백 하나로, 앞뒤 공백과 끝의 물음표/마침표/물결 제거 */
+    static String normalize(String q) {
+        if (q == null) return "";
+        StringBuilder sb = new StringBuilder(q.length());
+        boolean space = false;
+        for (int i = 0; i < q.length(); i++) {
+            char c = q.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = sb.length() > 0;
+                continue;
+            }
+            if (space) sb.append(' ');
+            space = false;
+            sb.append(Character.toLowerCase(c));
+        }
+        int end = sb.length();
+        while (end > 0 && "?!.~ ".indexOf(sb.charAt(end - 1)) >= 0) end--;
+        sb.setLength(end);
+        return sb.toString();
+    }
+}
@@ -3,13 +3,95 @@ package com.example.weather.service;
 public class TextSanitizer {
     private TextSanitizer() {}
 
+    /**
+     * 제어문자 → 공백, [=>] 3개 이상 연속 제거, "==" → "=", 연속 공백 하나로, 앞뒤 공백 제거.
+     * 정규식 없이 한 번 훑는다.
+     */
     public static String sanitize(String s) {
         if (s == null) return null;
-        String out = s.replace('\r', ' ').replace('\t', ' ');
-        out = out.replaceAll("[\u0000-\u001F]", " ");
-        out = out.replaceAll("[=>]{3,}", "");
-        out = out.replaceAll("={2,}", "=");
-        out = out.replaceAll("\\s+", " ").trim();
-        return out;
+        Incremental in = new Incremental();
+        StringBuilder out = new StringBuilder(s.length());
+        in.feed(s, out);
+        in.flush(out);
+        return out.toString();
+    }
+
+    public static Incremental incremental() {
+        return new Incremental();
+    }
+
+    /**
+     * 스트리밍용 상태 보존 sanitizer. 델타를 받을 때마다 확정된 부분만 돌려주며,
+     * 모든 accept 결과와 finish 결과를 이어 붙이면 전체 텍스트에 sanitize를 적용한 것과 같다.
+     * 청크 경계에 걸친 [=>] 연속과 공백은 다음 글자를 볼 때까지 보류한다.
+     */
+    public static final class Incremental {
+        private int runLength;     // 보류 중인 [=>] 연속 길이
+        private char run0, run1;   // 연속의 앞 두 글자(2개 이하일 때만 출력에 쓰임)
+        private boolean pendingSpace;
+        private boolean started;   // 공백이 아닌 글자를 하나라도 내보냈는지(앞 공백 제거)
+
+        private Incremental() {}
+
+        /** 델타를 넣고 새로 확정된 텍스트를 돌려준다(없으면 빈 문자열) */
+        public String accept(CharSequence delta) {
+            if (delta == null || delta.length() == 0) return "";
+            StringBuilder out = new StringBuilder(delta.length());
+            feed(delta, out);
+            return out.toString();
+        }
+
+        /** 스트림 끝: 보류 중인 짧은 [=>] 연속을 내보낸다. 끝 공백은 버린다 */
+        public String finish() {
+            StringBuilder out = new StringBuilder(2);
+            flush(out);
+            return out.toString();
+        }
+
+        private void feed(CharSequence s, StringBuilder out) {
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c == '=' || c == '>') {
+                    if (runLength == 0) run0 = c;
+                    else if (runLength == 1) run1 = c;
+                    runLength++;
+                    continue;
+                }
+                flushRun(out);
+                if (c <= '\u001F' || c == ' ') {
+                    if (started) pendingSpace = true;
+                } else {
+                    emit(c, out);
+                }
+            }
+        }
+
+        private void flush(StringBuilder out) {
+            flushRun(out);
+            pendingSpace = false;
+        }
+
+        private void flushRun(StringBuilder out) {
+            int n = runLength;
+            runLength = 0;
+            if (n == 0 || n >= 3) return;
+            if (n == 1) {
+                emit(run0, out);
+            } else if (run0 == '=' && run1 == '=') {
+                emit('=', out);
+            } else {
+                emit(run0, out);
+                emit(run1, out);
+            }
+        }
+
+        private void emit(char c, StringBuilder out) {
+            if (pendingSpace) {
+                out.append(' ');
+                pendingSpace = false;
+            }
+            out.append(c);
+            started = true;
+        }
     }
 }
@@ -1,78 +1,267 @@
 package com.example.weather.service;
 
 import com.example.weather.dto.WeatherDtos;
+import com.example.weather.util.Gazetteer;
+import com.example.weather.util.KmaGridConverter;
+import com.example.weather.util.KmaPublishSchedule;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 public class WeatherService {
 
+    private static final Logger log = LoggerFactory.getLogger(WeatherService.class);
+
+    private static final DateTimeFormatter HOUR_TAG = DateTimeFormatter.ofPattern("yyyyMMddHH");
+
+    // 배치 항목 오류는 업스트림 예외 내용 대신 고정 문구만 내려준다(상세는 서버 로그)
+    private static final String BATCH_ITEM_ERROR = "날씨 정보를 가져오지 못했습니다.";
+
     private final KmaClient kmaClient;
+    private final ForecastPayloadCache forecastPayloads;
+
+    @Value("${weather.batch.max-points:100}")
+    private int batchMaxPoints;
+
+    @Value("${weather.batch.concurrency:8}")
+    private int batchConcurrency;
 
     public WeatherDtos.CurrentWeatherResponse getCurrent(Double lat, Double lon, String city, boolean nocache) {
-        // 간단 프리셋(임시): 도시명이 오면 좌표 대체
-        if (city != null && !city.isBlank()) {
-            String c = city.toLowerCase(Locale.ROOT);
-            if (c.contains("busan") || city.contains("부산")) {
-                lat = 35.1796; lon = 129.0756;
-            } else { // default: 서울
-                lat = 37.5665; lon = 126.9780;
+        return KmaClient.join(getCurrentAsync(lat, lon, city, nocache));
+    }
+
+    public WeatherDtos.ForecastResponse getForecast(Double lat, Double lon, String city, boolean nocache) {
+        return KmaClient.join(getForecastAsync(lat, lon, city, nocache));
+    }
+
+    /** 격자로 바로 조회한다. 조회 수(hot cell)를 남기지 않으므로 사용자 요청이 아닌 백그라운드 작업용 */
+    public WeatherDtos.CurrentWeatherResponse getCurrentAtGrid(KmaGridConverter.Grid grid) {
+        return toCurrent(kmaClient.getUltraNowcast(grid, false));
+    }
+
+    public WeatherDtos.ForecastResponse getForecastAtGrid(KmaGridConverter.Grid grid) {
+        return toForecast(kmaClient.getVilageForecast(grid, false));
+    }
+
+    public CompletableFuture<WeatherDtos.CurrentWeatherResponse> getCurrentAsync(Double lat, Double lon, String city, boolean nocache) {
+        double[] loc = resolveLocation(lat, lon, city);
+        return kmaClient.getUltraNowcastAsync(loc[0], loc[1], nocache).thenApply(WeatherService::toCurrent);
+    }
+
+    public CompletableFuture<WeatherDtos.ForecastResponse> getForecastAsync(Double lat, Double lon, String city, boolean nocache) {
+        double[] loc = resolveLocation(lat, lon, city);
+        return kmaClient.getVilageForecastAsync(loc[0], loc[1], nocache).thenApply(WeatherService::toForecast);
+    }
+
+    /**
+     * 예보 응답을 직렬화·gzip된 바이트로 돌려준다. 같은 격자·기준시각이면 캐시된 바이트를 재사용한다.
+     */
+    public CompletableFuture<ForecastPayloadCache.Payload> getForecastPayloadAsync(Double lat, Double lon, String city, boolean nocache) {
+        double[] loc = resolveLocation(lat, lon, city);
+        KmaGridConverter.Grid g = KmaGridConverter.toGrid(loc[0], loc[1]);
+        return kmaClient.getVilageForecastAsync(loc[0], loc[1], nocache)
+                .thenApply(f -> forecastPayloads.get(kmaClient.provider(), g, f, nocache, () -> toForecast(f)));
+    }
+
+    /**
+     * HTTP 조건부 캐시용 태그. 같은 격자·같은 기준시각이면 응답이 같으므로 provider+격자+기준시각으로 ETag를 만들고,
+     * 다음 발표 시각까지를 max-age로 쓴다. KMA 호출 없이 계산된다.
+     */
+    public record CacheTag(String etag, String baseTime, LocalDateTime validUntil) {
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null || ifNoneMatch.isBlank()) return false;
+            for (String candidate : ifNoneMatch.split(",")) {
+                String c = candidate.trim();
+                if (c.startsWith("W/")) c = c.substring(2);
+                if (c.equals("*") || c.equals(etag)) return true;
             }
+            return false;
+        }
+
+        /** 인코딩별로 본문 바이트가 다르므로 강한 ETag도 인코딩마다 달라야 한다(예: gzip이면 "...-gzip") */
+        public CacheTag forEncoding(String coding) {
+            if (coding == null) return this;
+            return new CacheTag(etag.substring(0, etag.length() - 1) + "-" + coding + "\"", baseTime, validUntil);
+        }
+
+        public long maxAgeSeconds() {
+            return Math.max(0L, Duration.between(KmaPublishSchedule.now(), validUntil).getSeconds());
+        }
+    }
+
+    /** 현재 날씨 응답의 baseTime이 따르는 발표 일정 */
+    public KmaPublishSchedule.Kind nowcastKind() {
+        return kmaClient.nowcastKind();
+    }
+
+    public CacheTag currentCacheTag(Double lat, Double lon, String city) {
+        // Hub는 현재 날씨를 단기예보의 현재 시각 행에서 파생하므로 그 시각이 바뀌면 응답도 바뀐다
+        boolean derived = kmaClient.nowcastKind() == KmaPublishSchedule.Kind.VILAGE;
+        return cacheTag("current", kmaClient.nowcastKind(), derived, lat, lon, city);
+    }
+
+    public CacheTag forecastCacheTag(Double lat, Double lon, String city) {
+        return cacheTag("forecast", KmaPublishSchedule.Kind.VILAGE, false, lat, lon, city);
+    }
+
+    private CacheTag cacheTag(String view, KmaPublishSchedule.Kind kind, boolean hourly, Double lat, Double lon, String city) {
+        double[] loc = resolveLocation(lat, lon, city);
+        KmaGridConverter.Grid g = KmaGridConverter.toGrid(loc[0], loc[1]);
+        LocalDateTime now = KmaPublishSchedule.now();
+        KmaPublishSchedule.BaseTime base = KmaPublishSchedule.current(kind, now);
+        String baseTime = base.date() + base.time();
+        String etag = kmaClient.provider() + "-" + view + "-" + g.nx() + "-" + g.ny() + "-" + baseTime;
+        LocalDateTime validUntil = base.validUntil();
+        if (hourly) {
+            // 파생 시각을 ETag에 넣고 max-age는 다음 정시까지로 제한
+            LocalDateTime hour = now.truncatedTo(ChronoUnit.HOURS);
+            etag = etag + "-" + hour.format(HOUR_TAG);
+            LocalDateTime nextHour = hour.plusHours(1);
+            if (nextHour.isBefore(validUntil)) validUntil = nextHour;
+        }
+        return new CacheTag("\"" + etag + "\"", baseTime, validUntil);
+    }
+
+    /**
+     * 여러 지점의 현재 날씨를 한 번에 조회한다. 같은 KMA 격자(5km)로 모이는 지점은 한 번만 조회하고,
+     * 남은 격자는 동시 호출 수를 제한해 병렬로 가져온다. 결과는 입력 순서를 따른다.
+     */
+    public CompletableFuture<WeatherDtos.BatchResponse> getCurrentBatchAsync(List<WeatherDtos.BatchPoint> points) {
+        if (points.size() > batchMaxPoints) {
+            throw new IllegalArgumentException("한 번에 조회할 수 있는 위치는 최대 " + batchMaxPoints + "개입니다.");
+        }
+        List<KmaGridConverter.Grid> grids = new ArrayList<>(points.size());
+        Map<KmaGridConverter.Grid, WeatherDtos.BatchPoint> firstPointByGrid = new LinkedHashMap<>();
+        for (WeatherDtos.BatchPoint p : points) {
+            KmaGridConverter.Grid g = KmaGridConverter.toGrid(p.lat(), p.lon());
+            grids.add(g);
+            firstPointByGrid.putIfAbsent(g, p);
         }
+        Map<KmaGridConverter.Grid, CompletableFuture<WeatherDtos.CurrentWeatherResponse>> byGrid = fanOut(
+                firstPointByGrid.keySet(), batchConcurrency,
+                g -> {
+                    WeatherDtos.BatchPoint p = firstPointByGrid.get(g);
+                    return kmaClient.getUltraNowcastAsync(p.lat(), p.lon(), false)
+                            .thenApply(WeatherService::toCurrent)
+                            .whenComplete((cw, e) -> {
+                                if (e != null) log.warn("Weather batch item failed nx={} ny={}: {}", g.nx(), g.ny(), rootMessage(e));
+                            });
+                });
+        return CompletableFuture.allOf(byGrid.values().toArray(new CompletableFuture[0]))
+                .handle((ignored, err) -> {
+                    List<WeatherDtos.BatchItem> items = new ArrayList<>(points.size());
+                    for (int i = 0; i < points.size(); i++) {
+                        WeatherDtos.BatchPoint p = points.get(i);
+                        KmaGridConverter.Grid g = grids.get(i);
+                        CompletableFuture<WeatherDtos.CurrentWeatherResponse> f = byGrid.get(g);
+                        WeatherDtos.CurrentWeatherResponse cw = null;
+                        String error = null;
+                        try {
+                            cw = f.join();
+                        } catch (CompletionException e) {
+                            error = BATCH_ITEM_ERROR;
+                        }
+                        items.add(new WeatherDtos.BatchItem(p.lat(), p.lon(), g.nx(), g.ny(), cw, error));
+                    }
+                    return new WeatherDtos.BatchResponse(items);
+                });
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable t = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return t.getMessage() != null ? t.getMessage() : t.getClass().getSimpleName();
+    }
+
+    // 최대 limit개까지만 동시에 진행하고, 하나가 끝날 때마다 다음 키를 시작한다
+    private static <K, V> Map<K, CompletableFuture<V>> fanOut(Iterable<K> keys, int limit, Function<K, CompletableFuture<V>> call) {
+        Map<K, CompletableFuture<V>> results = new LinkedHashMap<>();
+        for (K k : keys) results.put(k, new CompletableFuture<>());
+        Iterator<Map.Entry<K, CompletableFuture<V>>> it = results.entrySet().iterator();
+        Runnable[] next = new Runnable[1];
+        next[0] = () -> {
+            Map.Entry<K, CompletableFuture<V>> e;
+            synchronized (it) {
+                if (!it.hasNext()) return;
+                e = it.next();
+            }
+            CompletableFuture<V> target = e.getValue();
+            CompletableFuture<V> call0;
+            try {
+                call0 = call.apply(e.getKey());
+            } catch (RuntimeException ex) {
+                call0 = CompletableFuture.failedFuture(ex);
+            }
+            call0.whenComplete((v, ex) -> {
+                if (ex != null) target.completeExceptionally(ex);
+                else target.complete(v);
+                next[0].run();
+            });
+        };
+        for (int i = 0; i < Math.max(1, limit); i++) next[0].run();
+        return results;
+    }
 
+    private static double[] resolveLocation(Double lat, Double lon, String city) {
+        // 도시명이 오면 지명 사전 좌표로 대체. 사전에 없는 이름이면 좌표가 있을 때만 좌표로 진행
+        if (city != null && !city.isBlank()) {
+            Gazetteer.Entry e = Gazetteer.get().lookup(city);
+            if (e != null) {
+                return new double[]{e.lat(), e.lon()};
+            }
+            if (lat == null || lon == null) {
+                // 읍면동 단위는 지원하지 않으므로(주요 장소만 수록) 시군구를 함께 적도록 안내
+                throw new IllegalArgumentException("알 수 없는 지역입니다: " + city + " (읍면동은 시군구와 함께 입력하세요. 예: 부산 해운대구 우동)");
+            }
+        }
         if (lat == null || lon == null) {
             // 좌표가 없다면 의미있는 응답 불가
             throw new IllegalArgumentException("위치 정보(lat, lon)가 필요합니다.");
         }
+        return new double[]{lat, lon};
+    }
 
-        Map<String, String> now = kmaClient.getUltraNowcast(lat, lon, nocache);
-
+    private static WeatherDtos.CurrentWeatherResponse toCurrent(KmaClient.Fetched<Map<String, String>> fetched) {
+        Map<String, String> now = fetched.data();
         // 실황: T1H/RN1, 예보: TMP/PCP
         String t = firstNonNull(now.get("T1H"), now.get("TMP"));
         String p = firstNonNull(now.get("RN1"), now.get("PCP"));
         Double temperature = parseDoubleSafe(t);
         Double precipitation = normalizePrecipitation(p);
         String sky = KmaClient.skyCodeToText(now.get("SKY"));
-
-        return new WeatherDtos.CurrentWeatherResponse(temperature, precipitation, sky);
+        return new WeatherDtos.CurrentWeatherResponse(temperature, precipitation, sky, baseTime(fetched), fetched.stale());
     }
 
-    public WeatherDtos.ForecastResponse getForecast(Double lat, Double lon, String city, boolean nocache) {
-        if (city != null && !city.isBlank()) {
-            String c = city.toLowerCase(Locale.ROOT);
-            if (c.contains("busan") || city.contains("부산")) {
-                lat = 35.1796; lon = 129.0756;
-            } else {
-                lat = 37.5665; lon = 126.9780;
-            }
-        }
-        if (lat == null || lon == null) {
-            throw new IllegalArgumentException("위치 정보(lat, lon)가 필요합니다.");
+    private static WeatherDtos.ForecastResponse toForecast(KmaClient.Fetched<KmaForecast> fetched) {
+        KmaForecast f = fetched.data();
+        java.util.List<WeatherDtos.ForecastEntry> items = new java.util.ArrayList<>(f.size());
+        for (int i = 0; i < f.size(); i++) {
+            String sky = KmaClient.skyCodeToText(f.skyCode(i));
+            items.add(new WeatherDtos.ForecastEntry(f.dateTime(i), f.temperature(i), f.precipitation(i), sky,
+                    f.pop(i), f.humidity(i), f.windSpeed(i), f.epochHour(i)));
         }
-        var list = kmaClient.getVilageForecast(lat, lon, nocache);
-        java.util.List<WeatherDtos.ForecastEntry> items = new java.util.ArrayList<>();
-        for (var m : list) {
-            String dt = m.get("dateTime");
-            String t = firstNonNull(m.get("TMP"), m.get("T1H"));
-            String p = firstNonNull(m.get("PCP"), m.get("RN1"));
-            String skyCode = m.get("SKY");
-            String popStr = m.get("POP");
-            String rehStr = m.get("REH");
-            String wsdStr = m.get("WSD");
-            Double temperature = parseDoubleSafe(t);
-            Double precipitation = normalizePrecipitation(p);
-            String sky = KmaClient.skyCodeToText(skyCode);
-            Integer pop = parseIntSafe(popStr);
-            Integer reh = parseIntSafe(rehStr);
-            Double wsd = parseDoubleSafe(wsdStr);
-            items.add(new WeatherDtos.ForecastEntry(dt, temperature, precipitation, sky, pop, reh, wsd));
-        }
-        return new WeatherDtos.ForecastResponse(items);
+        return new WeatherDtos.ForecastResponse(items, baseTime(fetched), fetched.stale());
+    }
+
+    private static String baseTime(KmaClient.Fetched<?> fetched) {
+        return fetched.base().date() + fetched.base().time();
     }
 
     private static Double parseDoubleSafe(String v) {
@@ -92,9 +281,4 @@ public class WeatherService {
         s = s.replace("mm", "").trim();
         try { return Double.parseDouble(s); } catch (Exception e) { return null; }
     }
-
-    private static Integer parseIntSafe(String v) {
-        if (v == null || v.isBlank() || "-".equals(v)) return null;
-        try { return Integer.parseInt(v); } catch (Exception e) { return null; }
-    }
 }
@@ -0,0 +1,145 @@
+package com.example.weather.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * 여러 키워드를 한 번의 훑기로 찾는 Aho-Corasick 자동자. 키워드는 소문자로 등록되고,
+ * 입력은 글자 단위로 소문자화하며 읽으므로 toLowerCase 사본을 만들지 않는다.
+ * 같은 키워드에 값을 여러 개 걸 수 있고, 겹치는 매칭도 모두 알려준다.
+ */
+public final class AhoCorasick<T> {
+
+    @FunctionalInterface
+    public interface Hit<T> {
+        /** text[start, end) 구간이 value의 키워드와 일치 */
+        void on(int start, int end, T value);
+    }
+
+    private static final class Node {
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_NODES = new Node[0];
+        private static final Object[] NO_VALUES = new Object[0];
+
+        char[] keys = NO_KEYS;
+        Node[] next = NO_NODES;
+        Object[] values = NO_VALUES;
+        int depth;
+        Node fail;
+        Node dict; // 실패 링크를 따라가며 만나는 첫 번째 값 있는 노드
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? next[i] : null;
+        }
+
+        Node childOrCreate(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0) return next[i];
+            int at = -i - 1;
+            char[] k = new char[keys.length + 1];
+            Node[] n = new Node[next.length + 1];
+            System.arraycopy(keys, 0, k, 0, at);
+            System.arraycopy(next, 0, n, 0, at);
+            k[at] = c;
+            n[at] = new Node();
+            n[at].depth = depth + 1;
+            System.arraycopy(keys, at, k, at + 1, keys.length - at);
+            System.arraycopy(next, at, n, at + 1, next.length - at);
+            keys = k;
+            next = n;
+            return n[at];
+        }
+    }
+
+    public static final class Builder<T> {
+        private final Node root = new Node();
+        private boolean built;
+
+        public Builder<T> add(String keyword, T value) {
+            if (built) throw new IllegalStateException("이미 생성된 자동자에는 키워드를 추가할 수 없습니다.");
+            String k = keyword.toLowerCase(Locale.ROOT);
+            if (k.isEmpty()) return this;
+            Node n = root;
+            for (int i = 0; i < k.length(); i++) n = n.childOrCreate(k.charAt(i));
+            for (Object v : n.values) {
+                if (v.equals(value)) return this;
+            }
+            n.values = Arrays.copyOf(n.values, n.values.length + 1);
+            n.values[n.values.length - 1] = value;
+            return this;
+        }
+
+        public AhoCorasick<T> build() {
+            built = true;
+            // BFS로 실패 링크/사전 링크 연결
+            Deque<Node> queue = new ArrayDeque<>();
+            root.fail = root;
+            for (Node c : root.next) {
+                c.fail = root;
+                queue.add(c);
+            }
+            while (!queue.isEmpty()) {
+                Node n = queue.poll();
+                for (int i = 0; i < n.keys.length; i++) {
+                    char ch = n.keys[i];
+                    Node c = n.next[i];
+                    Node f = n.fail;
+                    while (f != root && f.child(ch) == null) f = f.fail;
+                    Node target = f.child(ch);
+                    c.fail = target != null && target != c ? target : root;
+                    c.dict = c.fail.values.length > 0 ? c.fail : c.fail.dict;
+                    queue.add(c);
+                }
+            }
+            return new AhoCorasick<>(root);
+        }
+    }
+
+    private final Node root;
+
+    private AhoCorasick(Node root) {
+        this.root = root;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    @SuppressWarnings("unchecked")
+    public void scan(CharSequence text, Hit<T> hit) {
+        if (text == null) return;
+        Node n = root;
+        for (int i = 0; i < text.length(); i++) {
+            char ch = Character.toLowerCase(text.charAt(i));
+            Node next;
+            while ((next = n.child(ch)) == null && n != root) n = n.fail;
+            n = next != null ? next : root;
+            for (Node out = n.values.length > 0 ? n : n.dict; out != null; out = out.dict) {
+                int start = i + 1 - out.depth;
+                for (Object v : out.values) hit.on(start, i + 1, (T) v);
+            }
+        }
+    }
+
+    /** prefix로 시작하는 모든 키워드의 값(자동완성용, 순서 보장 없음) */
+    @SuppressWarnings("unchecked")
+    public void forEachWithPrefix(String prefix, Consumer<T> action) {
+        Node n = root;
+        String p = prefix.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < p.length() && n != null; i++) n = n.child(p.charAt(i));
+        if (n == null) return;
+        List<Node> stack = new ArrayList<>();
+        stack.add(n);
+        while (!stack.isEmpty()) {
+            Node cur = stack.remove(stack.size() - 1);
+            for (Object v : cur.values) action.accept((T) v);
+            for (Node c : cur.next) stack.add(c);
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.example.weather.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * 국내 행정구역 지명 사전. classpath의 geo/kr-regions.tsv(시도/시군구/일반구 전체와 관광지·번화가 등 주요 읍면동 약 30곳)를 한 번 읽어
+ * 한글·로마자 이름과 줄임말(수원시→수원, Suwon-si→suwon)을 트라이에 올려 두고,
+ * 문장 안에서 언급된 지역을 한 번의 훑기로 찾는다. 각 항목은 KMA 격자를 미리 계산해 둔다.
+ */
+public final class Gazetteer {
+
+    private static final String RESOURCE = "/geo/kr-regions.tsv";
+
+    // 일상어와 겹치는 줄임말: 단어 끝(공백/조사)이 확인될 때만 지명으로 본다
+    private static final Set<String> COMMON_WORDS = Set.of(
+            "진도", "영광", "장수", "부여", "동해", "남해", "고성", "인제", "보은", "광산", "삼성", "정자",
+            "구리", "양주", "공주", "예산", "음성", "완주", "무안", "경주", "상주", "영양", "고령", "진주");
+    private static final String PARTICLES = "은는이가을를에의도쪽날";
+
+    private static final String[] SUFFIXES_KO = {"특별자치시", "특별자치도", "특별시", "광역시", "도", "시", "군", "구", "읍", "면", "동"};
+    private static final String[] SUFFIXES_EN = {"-si", "-gun", "-gu", "-do", "-eup", "-myeon", "-dong"};
+
+    // 별칭 매칭 조건
+    private static final int MODE_ANY = 0;        // 문장 어디서든
+    private static final int MODE_WORD_START = 1; // 단어 시작에서만
+    private static final int MODE_WORD = 2;       // 단어 시작 + 끝(공백/조사)
+    private static final int MODE_ASCII = 3;      // 로마자: 앞뒤가 영숫자가 아닐 때
+
+    public record Entry(int id, int level, String name, String roman, double lat, double lon,
+                        KmaGridConverter.Grid grid, Entry parent, String displayName) {
+        public boolean isWithin(Entry ancestor) {
+            for (Entry p = parent; p != null; p = p.parent) {
+                if (p == ancestor) return true;
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+
+    /** 자동자에 올리는 별칭 값: 어느 항목인지와 매칭 조건 */
+    public record Alias(int entryId, int mode) {}
+
+    /** 자동자가 찾은 별칭 구간 */
+    public record AliasHit(int start, int end, Alias alias) {}
+
+    private final List<Entry> entries;
+    private final List<Row> rows;
+    private final AhoCorasick<Alias> automaton;
+    private final Map<KmaGridConverter.Grid, Entry> byGrid = new HashMap<>();
+
+    private Gazetteer(List<Entry> entries, List<Row> rows) {
+        this.entries = entries;
+        this.rows = rows;
+        for (Entry e : entries) {
+            byGrid.merge(e.grid, e, (a, b) -> b.level < a.level ? b : a);
+        }
+        AhoCorasick.Builder<Alias> b = AhoCorasick.builder();
+        registerAliases(b::add);
+        this.automaton = b.build();
+    }
+
+    public static Gazetteer get() {
+        return Holder.INSTANCE;
+    }
+
+    private static final class Holder {
+        static final Gazetteer INSTANCE = load();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 문장(또는 지명 문자열)에서 언급된 지역 중 가장 구체적인 하나를 고른다.
+     * 상위 지역이 함께 언급되면(부산 중구, 경기 광주) 그 하위 지역을 우선하고,
+     * 그 외에는 먼저 나온 것 → 상위 행정구역 → 사전 순서로 고른다. 없으면 null.
+     * 읍면동 단위는 지원 범위가 아니다. 사전에 없는 읍면동은 무시되므로 상위 지역이 함께 적혀 있으면 그 지역이 된다(부산 해운대구 우동 → 해운대구).
+     */
+    public Entry lookup(String text) {
+        if (text == null || text.isBlank()) return null;
+        List<AliasHit> hits = new ArrayList<>(4);
+        automaton.scan(text, (start, end, alias) -> hits.add(new AliasHit(start, end, alias)));
+        return resolve(text, hits);
+    }
+
+    /**
+     * 다른 키워드와 함께 한 번에 훑은 결과(IntentParser)에서 지역을 고른다.
+     * hits는 text에서 찾은 별칭 구간 전부(겹침 포함)이며, 왼쪽부터 가장 긴 구간만 지명으로 인정한다
+     * (강서구 안의 '서구' 같은 겹침 방지).
+     */
+    public Entry resolve(CharSequence text, List<AliasHit> hits) {
+        if (hits.isEmpty()) return null;
+        List<AliasHit> sorted = new ArrayList<>(hits);
+        sorted.sort((x, y) -> x.start != y.start ? Integer.compare(x.start, y.start) : Integer.compare(y.end, x.end));
+
+        Map<Entry, Integer> firstPos = new LinkedHashMap<>();
+        int covered = 0;
+        for (int i = 0; i < sorted.size(); ) {
+            int start = sorted.get(i).start;
+            int j = i;
+            while (j < sorted.size() && sorted.get(j).start == start) j++;
+            if (start >= covered) {
+                // 같은 시작 위치에서 조건을 만족하는 가장 긴 구간
+                int end = -1;
+                for (int k = i; k < j; k++) {
+                    AliasHit h = sorted.get(k);
+                    if (end >= 0 && h.end < end) break;
+                    if (accepts(h.alias.mode, text, h.start, h.end)) {
+                        end = h.end;
+                        firstPos.putIfAbsent(entries.get(h.alias.entryId), start);
+                    }
+                }
+                if (end >= 0) covered = end;
+            }
+            i = j;
+        }
+        if (firstPos.isEmpty()) return null;
+        Set<Entry> mentioned = firstPos.keySet();
+
+        Entry best = null;
+        int bestAncestors = -1, bestPos = 0;
+        for (Map.Entry<Entry, Integer> c : firstPos.entrySet()) {
+            Entry e = c.getKey();
+            if (hasMentionedDescendant(e, mentioned)) continue;
+            int ancestors = 0;
+            for (Entry p = e.parent; p != null; p = p.parent) {
+                if (mentioned.contains(p)) ancestors++;
+            }
+            int pos = c.getValue();
+            if (best == null
+                    || ancestors > bestAncestors
+                    || (ancestors == bestAncestors && (pos < bestPos
+                        || (pos == bestPos && (e.level < best.level
+                            || (e.level == best.level && e.id < best.id)))))) {
+                best = e;
+                bestAncestors = ancestors;
+                bestPos = pos;
+            }
+        }
+        return best;
+    }
+
+    /** 이름·줄임말·로마자 별칭을 모두 넘긴다. 다른 키워드와 한 자동자로 묶을 때 사용 */
+    public void registerAliases(BiConsumer<String, Alias> sink) {
+        for (Entry e : entries) {
+            Row r = rows.get(e.id);
+            // 두 글자 시군구(중구, 동구)는 단어 시작에서만: '이동구간' 같은 오탐 방지
+            sink.accept(e.name, new Alias(e.id, e.level > 1 && e.name.length() <= 2 ? MODE_WORD_START : MODE_ANY));
+            for (String a : r.aliases) sink.accept(a, new Alias(e.id, MODE_ANY));
+            String shortName = shortKo(e.name);
+            if (!shortName.equals(e.name)) {
+                int mode;
+                if (COMMON_WORDS.contains(shortName)) mode = MODE_WORD;
+                else if (e.level == 1 || shortName.length() > 2) mode = MODE_ANY;
+                else mode = MODE_WORD_START;
+                sink.accept(shortName, new Alias(e.id, mode));
+            }
+            if (!e.roman.isEmpty()) {
+                String roman = e.roman.toLowerCase(Locale.ROOT);
+                sink.accept(roman, new Alias(e.id, MODE_ASCII));
+                sink.accept(roman.replace("-", ""), new Alias(e.id, MODE_ASCII));
+                String shortRoman = shortEn(roman);
+                if (shortRoman.length() >= 3) sink.accept(shortRoman, new Alias(e.id, MODE_ASCII));
+            }
+        }
+    }
+
+    /** 격자에 속한 지역 중 가장 상위 행정구역(같으면 사전 순서). 없으면 null */
+    public Entry atGrid(KmaGridConverter.Grid grid) {
+        return byGrid.get(grid);
+    }
+
+    /** 이름/별칭이 prefix로 시작하는 지역(자동완성용). 상위 행정구역, 사전 순서로 최대 limit개 */
+    public List<Entry> complete(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank() || limit <= 0) return List.of();
+        Set<Integer> ids = new LinkedHashSet<>();
+        automaton.forEachWithPrefix(prefix.trim(), a -> ids.add(a.entryId));
+        List<Entry> out = new ArrayList<>(ids.size());
+        for (int id : ids) out.add(entries.get(id));
+        out.sort((a, b) -> a.level != b.level ? Integer.compare(a.level, b.level) : Integer.compare(a.id, b.id));
+        return out.size() > limit ? out.subList(0, limit) : out;
+    }
+
+    private static boolean accepts(int mode, CharSequence t, int start, int end) {
+        boolean wordStart = start == 0 || !Character.isLetterOrDigit(t.charAt(start - 1));
+        boolean wordEnd = end == t.length() || !Character.isLetterOrDigit(t.charAt(end));
+        return switch (mode) {
+            case MODE_WORD_START -> wordStart;
+            case MODE_WORD -> wordStart && (wordEnd || PARTICLES.indexOf(t.charAt(end)) >= 0);
+            case MODE_ASCII -> wordStart && wordEnd;
+            default -> true;
+        };
+    }
+
+    private static boolean hasMentionedDescendant(Entry e, Set<Entry> mentioned) {
+        for (Entry other : mentioned) {
+            if (other != e && other.isWithin(e)) return true;
+        }
+        return false;
+    }
+
+    // ---- 로딩 ----
+
+    private record Row(int level, String name, String roman, double lat, double lon, List<String> aliases, int parent) {}
+
+    private static Gazetteer load() {
+        List<Row> rows = readRows();
+
+        // 줄임말이 전국에서 유일한 시군구는 줄임말로, 아니면 상위 지역을 붙여 표시한다(부산 중구, 경기 광주시)
+        Map<String, Integer> shortCount = new HashMap<>();
+        for (Row r : rows) shortCount.merge(shortKo(r.name), 1, Integer::sum);
+
+        List<Entry> entries = new ArrayList<>(rows.size());
+        for (int id = 0; id < rows.size(); id++) {
+            Row r = rows.get(id);
+            Entry parent = r.parent >= 0 ? entries.get(r.parent) : null;
+            String shortName = shortKo(r.name);
+            String display;
+            if (r.level == 1) {
+                display = r.aliases.isEmpty() ? shortName : r.aliases.get(0);
+            } else if (r.level == 2 && shortName.length() >= 2 && shortCount.get(shortName) == 1) {
+                display = shortName;
+            } else {
+                display = parent.displayName + " " + r.name;
+            }
+            entries.add(new Entry(id, r.level, r.name, r.roman, r.lat, r.lon,
+                    KmaGridConverter.toGrid(r.lat, r.lon), parent, display));
+        }
+
+        return new Gazetteer(Collections.unmodifiableList(entries), rows);
+    }
+
+    private static List<Row> readRows() {
+        InputStream in = Gazetteer.class.getResourceAsStream(RESOURCE);
+        if (in == null) throw new IllegalStateException("지명 사전 파일이 없습니다: " + RESOURCE);
+        List<Row> rows = new ArrayList<>(512);
+        int[] lastAtLevel = {-1, -1, -1, -1, -1};
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNo = 0;
+            while ((line = br.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank() || line.startsWith("#")) continue;
+                String[] c = line.split("\t");
+                if (c.length < 5) throw new IllegalStateException("지명 사전 형식 오류(" + lineNo + "행): " + line);
+                int level = Integer.parseInt(c[0].trim());
+                if (level < 1 || level > 4) throw new IllegalStateException("지명 사전 단계 오류(" + lineNo + "행): " + line);
+                // 상위 지역은 파일 순서상 바로 앞의 더 높은 단계 항목
+                int parent = -1;
+                for (int l = level - 1; l >= 1 && parent < 0; l--) parent = lastAtLevel[l];
+                if (level > 1 && parent < 0) throw new IllegalStateException("상위 지역이 없는 항목(" + lineNo + "행): " + line);
+                List<String> aliases = new ArrayList<>();
+                if (c.length > 5 && !c[5].isBlank()) {
+                    for (String a : c[5].split(",")) {
+                        if (!a.isBlank()) aliases.add(a.trim());
+                    }
+                }
+                rows.add(new Row(level, c[1].trim(), c[2].trim(),
+                        Double.parseDouble(c[3].trim()), Double.parseDouble(c[4].trim()), aliases, parent));
+                lastAtLevel[level] = rows.size() - 1;
+                for (int l = level + 1; l < lastAtLevel.length; l++) lastAtLevel[l] = -1;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return rows;
+    }
+
+    // 수원시→수원, 서울특별시→서울. 남는 이름이 한 글자면(중구) 그대로 둔다
+    private static String shortKo(String name) {
+        for (String s : SUFFIXES_KO) {
+            if (name.length() > s.length() && name.endsWith(s)) {
+                String stripped = name.substring(0, name.length() - s.length());
+                return stripped.length() >= 2 ? stripped : name;
+            }
+        }
+        return name;
+    }
+
+    private static String shortEn(String roman) {
+        for (String s : SUFFIXES_EN) {
+            if (roman.endsWith(s)) return roman.substring(0, roman.length() - s.length());
+        }
+        return roman;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.weather.util;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+// KMA 자료 발표 일정 기반 기준시각(base_date/base_time) 계산
+// - 단기예보(getVilageFcst): 02,05,08,11,14,17,20,23시 기준, 10분 이후 제공
+// - 초단기실황(getUltraSrtNcst): 매시 30분 기준, 40분 이후 제공
+// 캐시 항목은 "경과 시간"이 아니라 자신의 기준시각이 다음 발표로 대체되었는지로 유효성을 판단한다.
+public final class KmaPublishSchedule {
+    private KmaPublishSchedule() {}
+
+    public static final ZoneId KST = ZoneId.of("Asia/Seoul");
+
+    private static final int[] VILAGE_HOURS = {2, 5, 8, 11, 14, 17, 20, 23};
+    private static final int VILAGE_AVAILABLE_MINUTE = 10;
+    private static final int ULTRA_BASE_MINUTE = 30;
+    private static final int ULTRA_AVAILABLE_MINUTE = 40;
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter HOUR = DateTimeFormatter.ofPattern("HH");
+
+    public enum Kind { VILAGE, ULTRA }
+
+    /**
+     * @param issuedAt   기준시각(KST)
+     * @param validUntil 다음 기준시각 자료가 제공되기 시작하는 시각(KST). 이 시각 이후에는 대체된 자료다.
+     */
+    public record BaseTime(Kind kind, String date, String time, LocalDateTime issuedAt, LocalDateTime validUntil) {
+        public boolean isCurrent(LocalDateTime now) {
+            return now.isBefore(validUntil);
+        }
+
+        public long validUntilEpochMillis() {
+            return validUntil.atZone(KST).toInstant().toEpochMilli();
+        }
+    }
+
+    public static LocalDateTime now() {
+        return LocalDateTime.now(KST);
+    }
+
+    public static BaseTime current(Kind kind) {
+        return current(kind, now());
+    }
+
+    public static BaseTime current(Kind kind, LocalDateTime now) {
+        return kind == Kind.VILAGE ? vilageBase(now) : ultraBase(now);
+    }
+
+    public static BaseTime vilageBase(LocalDateTime now) {
+        // 정시 발표분은 10분 이후 제공되므로 그 전까지는 직전 슬롯 사용
+        LocalDateTime available = now.minusMinutes(VILAGE_AVAILABLE_MINUTE);
+        LocalDateTime candidate = available.withMinute(0).withSecond(0).withNano(0);
+        int h = available.getHour();
+        int chosen = -1;
+        for (int i = VILAGE_HOURS.length - 1; i >= 0; i--) {
+            if (h >= VILAGE_HOURS[i]) { chosen = VILAGE_HOURS[i]; break; }
+        }
+        if (chosen == -1) { // 00~02:09는 전날 23시로
+            candidate = candidate.minusDays(1).withHour(23);
+        } else {
+            candidate = candidate.withHour(chosen);
+        }
+        return new BaseTime(Kind.VILAGE, candidate.format(DATE), candidate.format(HOUR) + "00",
+                candidate, candidate.plusHours(3).withMinute(VILAGE_AVAILABLE_MINUTE));
+    }
+
+    public static BaseTime ultraBase(LocalDateTime now) {
+        // 분이 40 미만이면 이전시각 30분, 아니면 해당시각 30분 사용
+        LocalDateTime hour = now.withMinute(0).withSecond(0).withNano(0);
+        if (now.getMinute() < ULTRA_AVAILABLE_MINUTE) {
+            hour = hour.minusHours(1);
+        }
+        LocalDateTime issued = hour.withMinute(ULTRA_BASE_MINUTE);
+        LocalDateTime validUntil = hour.plusHours(1).withMinute(ULTRA_AVAILABLE_MINUTE);
+        return new BaseTime(Kind.ULTRA, issued.format(DATE), issued.format(HOUR) + "30", issued, validUntil);
+    }
+
+    /** 저장된 base_date/base_time으로 기준시각을 복원한다(스냅샷 복원용) */
+    public static BaseTime of(Kind kind, String date, String time) {
+        LocalDateTime issued = java.time.LocalDate.parse(date, DATE)
+                .atTime(Integer.parseInt(time.substring(0, 2)), Integer.parseInt(time.substring(2, 4)));
+        LocalDateTime validUntil = kind == Kind.VILAGE
+                ? issued.plusHours(3).withMinute(VILAGE_AVAILABLE_MINUTE)
+                : issued.withMinute(ULTRA_AVAILABLE_MINUTE).plusHours(1);
+        return new BaseTime(kind, date, time, issued, validUntil);
+    }
+
+    /** 다음 발표 자료가 제공되기 시작하는 시각 */
+    public static LocalDateTime nextPublish(Kind kind, LocalDateTime now) {
+        return current(kind, now).validUntil();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.weather.controller;
+
+import com.example.weather.config.SecurityConfig;
+import com.example.weather.dto.WeatherDtos;
+import com.example.weather.security.JwtProvider;
+import com.example.weather.service.WeatherService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(WeatherController.class)
+@Import({SecurityConfig.class, JwtProvider.class})
+@TestPropertySource(properties = {
+        "jwt.secret=test-secret-test-secret-test-secret-0123456789",
+        "jwt.expiration-ms=60000"})
+class WeatherControllerSecurityTest {
+
+    private static final String BODY = "{\"points\":[{\"lat\":37.5665,\"lon\":126.978}]}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtProvider jwtProvider;
+
+    @MockBean
+    private WeatherService weatherService;
+
+    @Test
+    void batchWithJwtCompletesAsyncDispatch() throws Exception {
+        WeatherDtos.BatchItem item = new WeatherDtos.BatchItem(37.5665, 126.978, 60, 127, null, "날씨 정보를 가져오지 못했습니다.");
+        given(weatherService.getCurrentBatchAsync(anyList()))
+                .willReturn(CompletableFuture.completedFuture(new WeatherDtos.BatchResponse(List.of(item))));
+
+        MvcResult started = mockMvc.perform(post("/api/weather/batch")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtProvider.generateToken("user@example.com"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BODY))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].nx").value(60));
+    }
+
+    @Test
+    void batchWithoutJwtIsRejected() throws Exception {
+        mockMvc.perform(post("/api/weather/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BODY))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.weather.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// --name=value 형식의 명령행 인자
+final class Args {
+    private Args() {}
+
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> out = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) throw new IllegalArgumentException("인자는 --이름=값 형식이어야 합니다: " + arg);
+            int eq = arg.indexOf('=');
+            if (eq < 0) out.put(arg.substring(2), "true");
+            else out.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return out;
+    }
+
+    static String stringArg(Map<String, String> a, String name, String def) {
+        return a.getOrDefault(name, def);
+    }
+
+    static int intArg(Map<String, String> a, String name, int def) {
+        String v = a.get(name);
+        return v == null ? def : Integer.parseInt(v);
+    }
+
+    static long longArg(Map<String, String> a, String name, long def) {
+        String v = a.get(name);
+        return v == null ? def : Long.parseLong(v);
+    }
+
+    static double doubleArg(Map<String, String> a, String name, double def) {
+        String v = a.get(name);
+        return v == null ? def : Double.parseDouble(v);
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.weather.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * /api/chat, /api/chat/stream 부하 생성기. 동시 사용자 수만큼 요청을 반복해 보내고
+ * 지연(p50/p95/p99), 첫 토큰까지의 시간(TTFT, 스트림은 첫 data 이벤트, 일반 요청은 응답 완료), 처리량, 오류 수를 출력한다.
+ * LLM 대기열 거절("요청이 많아…", HTTP 200)은 성공으로 치지 않고 overloaded로 따로 센다(지연/처리량은 성공 응답만).
+ * 토큰은 --token으로 주거나 --email/--password로 로그인해 받는다.
+ *
+ * 테스트 소스(운영 jar에 포함되지 않음). 실행(backend 디렉터리):
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/test-cp.txt
+ *   java -cp "target/test-classes:target/classes:$(cat target/test-cp.txt)" com.example.weather.loadtest.ChatLoadGenerator \
+ *     --base-url=http://localhost:8080 --email=load@test.com --password=secret --mode=both --concurrency=16 --requests=400
+ */
+public class ChatLoadGenerator {
+
+    // 날씨(템플릿/요약 경로)와 일반 질문(LLM 경로)을 섞은 기본 질문
+    private static final List<String> DEFAULT_MESSAGES = List.of(
+            "서울 지금 날씨 어때?",
+            "부산 내일 오전 날씨 알려줘",
+            "대구 내일 오후 비 와?",
+            "제주 모레 날씨는?",
+            "우산을 오래 쓰는 방법 알려줘",
+            "황사 심한 날 외출할 때 주의할 점은?",
+            "장마철 빨래 잘 말리는 법",
+            "체감온도가 뭐야?");
+
+    // ChatService.OVERLOADED와 같은 문구(서버는 거절도 200으로 응답)
+    private static final String OVERLOADED = "요청이 많아 잠시 후 다시 시도해 주세요.";
+
+    private enum Outcome { OK, ERROR, OVERLOADED }
+
+    private record Sample(long latencyNanos, long ttftNanos, Outcome outcome) {}
+
+    public record Summary(String mode, int count, int errors, int overloaded, long elapsedNanos, long[] latency, long[] ttft) {}
+
+    private final HttpClient http;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final String baseUrl;
+    private final String token;
+    private final List<String> messages;
+    private final boolean unique;
+
+    public ChatLoadGenerator(String baseUrl, String token, List<String> messages, boolean unique, int concurrency) {
+        this.baseUrl = baseUrl.replaceAll("/+$", "");
+        this.token = token;
+        this.messages = messages;
+        this.unique = unique;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(2, concurrency)))
+                .build();
+    }
+
+    public static String login(String baseUrl, String email, String password) throws IOException, InterruptedException {
+        ObjectMapper mapper = new ObjectMapper();
+        HttpRequest req = HttpRequest.newBuilder(URI.create(baseUrl.replaceAll("/+$", "") + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(Map.of("email", email, "password", password))))
+                .build();
+        HttpResponse<String> resp = HttpClient.newHttpClient().send(req, HttpResponse.BodyHandlers.ofString());
+        if (resp.statusCode() != 200) throw new IllegalStateException("로그인 실패(" + resp.statusCode() + "): " + resp.body());
+        return mapper.readTree(resp.body()).path("accessToken").asText();
+    }
+
+    /** stream=true면 /api/chat/stream, 아니면 /api/chat. 전체 requests개를 concurrency개 작업자가 나눠 보낸다 */
+    public Summary run(boolean stream, int concurrency, int requests, Duration timeout) throws InterruptedException {
+        Sample[] samples = new Sample[requests];
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long started = System.nanoTime();
+        for (int w = 0; w < concurrency; w++) {
+            workers.execute(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < requests) {
+                    samples[i] = stream ? stream(i, timeout) : chat(i, timeout);
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.DAYS);
+        long elapsed = System.nanoTime() - started;
+
+        int errors = 0, overloaded = 0;
+        long[] latency = new long[requests];
+        long[] ttft = new long[requests];
+        int n = 0;
+        for (Sample s : samples) {
+            if (s != null && s.outcome == Outcome.OVERLOADED) {
+                overloaded++;
+                continue;
+            }
+            if (s == null || s.outcome != Outcome.OK) {
+                errors++;
+                continue;
+            }
+            latency[n] = s.latencyNanos;
+            ttft[n] = s.ttftNanos;
+            n++;
+        }
+        latency = Arrays.copyOf(latency, n);
+        ttft = Arrays.copyOf(ttft, n);
+        Arrays.sort(latency);
+        Arrays.sort(ttft);
+        return new Summary(stream ? "stream" : "chat", requests, errors, overloaded, elapsed, latency, ttft);
+    }
+
+    private Sample chat(int i, Duration timeout) {
+        long t0 = System.nanoTime();
+        try {
+            HttpResponse<String> resp = http.send(request("/api/chat", i, timeout, "application/json"),
+                    HttpResponse.BodyHandlers.ofString());
+            long t = System.nanoTime() - t0;
+            if (resp.statusCode() != 200) return new Sample(t, t, Outcome.ERROR);
+            String content = mapper.readTree(resp.body()).path("content").asText("");
+            if (content.startsWith(OVERLOADED)) return new Sample(t, t, Outcome.OVERLOADED);
+            return new Sample(t, t, content.startsWith("오류:") ? Outcome.ERROR : Outcome.OK);
+        } catch (IOException e) {
+            return new Sample(System.nanoTime() - t0, 0, Outcome.ERROR);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Sample(System.nanoTime() - t0, 0, Outcome.ERROR);
+        }
+    }
+
+    private Sample stream(int i, Duration timeout) {
+        long t0 = System.nanoTime();
+        long first = 0;
+        boolean ok;
+        boolean rejected = false;
+        try {
+            HttpResponse<Stream<String>> resp = http.send(request("/api/chat/stream", i, timeout, "text/event-stream"),
+                    HttpResponse.BodyHandlers.ofLines());
+            ok = resp.statusCode() == 200;
+            boolean done = false;
+            try (Stream<String> lines = resp.body()) {
+                for (String line : (Iterable<String>) lines::iterator) {
+                    if (!line.startsWith("data:")) continue;
+                    String data = line.substring(5).trim();
+                    if (data.startsWith("[ERROR]")) {
+                        rejected = data.substring(7).trim().startsWith(OVERLOADED);
+                        ok = false;
+                        break;
+                    }
+                    if ("[DONE]".equals(data)) {
+                        done = true;
+                        break;
+                    }
+                    if (first == 0) first = System.nanoTime() - t0;
+                }
+            }
+            ok = ok && done && first > 0;
+        } catch (IOException | UncheckedIOException e) {
+            ok = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ok = false;
+        }
+        return new Sample(System.nanoTime() - t0, first, ok ? Outcome.OK : rejected ? Outcome.OVERLOADED : Outcome.ERROR);
+    }
+
+    private HttpRequest request(String path, int i, Duration timeout, String accept) throws IOException {
+        String message = messages.get(i % messages.size());
+        // 답변 캐시를 피하려면 요청마다 문장을 다르게 만든다
+        if (unique) message = message + " #" + i;
+        String body = mapper.writeValueAsString(Map.of(
+                "messages", List.of(Map.of("role", "user", "content", message))));
+        HttpRequest.Builder b = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .header("Accept", accept)
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null && !token.isBlank()) b.header("Authorization", "Bearer " + token);
+        return b.build();
+    }
+
+    public static String format(Summary s) {
+        int ok = s.latency.length;
+        double seconds = s.elapsedNanos / 1e9;
+        return String.format(Locale.ROOT,
+                "[%s] requests=%d ok=%d errors=%d overloaded=%d elapsed=%.1fs throughput=%.1f req/s%n" +
+                "  latency ms  p50=%.0f p95=%.0f p99=%.0f max=%.0f%n" +
+                "  ttft ms     p50=%.0f p95=%.0f p99=%.0f",
+                s.mode, s.count, ok, s.errors, s.overloaded, seconds, ok / seconds,
+                ms(percentile(s.latency, 50)), ms(percentile(s.latency, 95)), ms(percentile(s.latency, 99)),
+                ms(ok == 0 ? 0 : s.latency[ok - 1]),
+                ms(percentile(s.ttft, 50)), ms(percentile(s.ttft, 95)), ms(percentile(s.ttft, 99)));
+    }
+
+    // 정렬된 배열의 nearest-rank 백분위
+    static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.min(sorted.length, Math.max(1, rank)) - 1];
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1e6;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> a = Args.parse(args);
+        String baseUrl = Args.stringArg(a, "base-url", "http://localhost:8080");
+        String token = Args.stringArg(a, "token", null);
+        if (token == null && a.containsKey("email")) {
+            token = login(baseUrl, a.get("email"), Args.stringArg(a, "password", ""));
+        }
+        String mode = Args.stringArg(a, "mode", "both");
+        int concurrency = Args.intArg(a, "concurrency", 8);
+        int requests = Args.intArg(a, "requests", 200);
+        int warmup = Args.intArg(a, "warmup", 0);
+        Duration timeout = Duration.ofMillis(Args.longArg(a, "timeout-ms", 120000));
+        List<String> messages = a.containsKey("message") ? List.of(a.get("message")) : DEFAULT_MESSAGES;
+        boolean unique = Boolean.parseBoolean(Args.stringArg(a, "unique", "false"));
+
+        ChatLoadGenerator gen = new ChatLoadGenerator(baseUrl, token, messages, unique, concurrency);
+        for (boolean stream : new boolean[]{false, true}) {
+            if (stream ? "chat".equals(mode) : "stream".equals(mode)) continue;
+            if (warmup > 0) gen.run(stream, concurrency, warmup, timeout);
+            System.out.println(format(gen.run(stream, concurrency, requests, timeout)));
+        }
+        System.exit(0);
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.weather.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HuggingFaceClient가 쓰는 OpenAI 호환 /v1/chat/completions 스텁(부하 테스트용).
+ * stream=true면 SSE 청크(choices[0].delta.content)와 [DONE], 아니면 choices[0].message.content 한 번에.
+ * 첫 토큰 지연, 토큰 속도, 토큰 수, 오류 비율(HTTP 500)을 조절할 수 있고 다른 코드에서 start/stop으로 띄울 수도 있다.
+ *
+ * 테스트 소스(운영 jar에 포함되지 않음). 실행(backend 디렉터리, 클래스패스 준비는 ChatLoadGenerator 참고):
+ *   java -cp "target/test-classes:target/classes:$(cat target/test-cp.txt)" com.example.weather.loadtest.LlmStubServer \
+ *     --port=11434 --first-token-ms=300 --tokens-per-sec=20
+ */
+public class LlmStubServer {
+
+    public record Options(int port, long firstTokenMs, double tokensPerSec, int tokens, double errorRate, int threads) {
+        public static Options defaults() {
+            return new Options(11434, 300, 20, 40, 0.0, 64);
+        }
+    }
+
+    // 답변 토큰으로 돌려 쓰는 조각
+    private static final String[] WORDS = {
+            "오늘은 ", "대체로 ", "맑고 ", "기온은 ", "23°C ", "안팎이에요. ", "오후에는 ", "구름이 ",
+            "조금 ", "늘겠고 ", "강수확률은 ", "20% ", "정도예요. ", "외출 ", "시 ", "가벼운 ", "겉옷을 ", "챙기세요. "};
+
+    private final Options options;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public LlmStubServer(Options options) {
+        this.options = options;
+    }
+
+    public synchronized LlmStubServer start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(options.port()), 0);
+        executor = Executors.newFixedThreadPool(Math.max(1, options.threads()));
+        server.setExecutor(executor);
+        server.createContext("/v1/chat/completions", this::handle);
+        server.start();
+        return this;
+    }
+
+    public synchronized void stop() {
+        if (server != null) server.stop(0);
+        if (executor != null) executor.shutdownNow();
+    }
+
+    /** 실제 바인딩된 포트(port=0이면 임의 포트) */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public long requestCount() {
+        return requests.get();
+    }
+
+    public long errorCount() {
+        return errors.get();
+    }
+
+    private void handle(HttpExchange ex) {
+        try {
+            if (!"POST".equalsIgnoreCase(ex.getRequestMethod())) {
+                send(ex, 405, "application/json", "{\"error\":\"method not allowed\"}");
+                return;
+            }
+            requests.incrementAndGet();
+            JsonNode body = mapper.readTree(ex.getRequestBody());
+            boolean stream = body.path("stream").asBoolean(false);
+            int maxTokens = body.path("max_tokens").asInt(Integer.MAX_VALUE);
+            int tokens = Math.min(options.tokens(), maxTokens);
+
+            sleep(options.firstTokenMs());
+            if (options.errorRate() > 0 && ThreadLocalRandom.current().nextDouble() < options.errorRate()) {
+                errors.incrementAndGet();
+                send(ex, 500, "application/json", "{\"error\":\"injected failure\"}");
+                return;
+            }
+            long interval = options.tokensPerSec() > 0 ? Math.round(1000.0 / options.tokensPerSec()) : 0;
+            if (stream) {
+                streamTokens(ex, tokens, interval);
+            } else {
+                StringBuilder sb = new StringBuilder();
+                for (int i = 0; i < tokens; i++) {
+                    if (i > 0) sleep(interval);
+                    sb.append(WORDS[i % WORDS.length]);
+                }
+                String json = mapper.writeValueAsString(Map.of(
+                        "object", "chat.completion",
+                        "choices", List.of(Map.of("index", 0, "finish_reason", "stop",
+                                "message", Map.of("role", "assistant", "content", sb.toString().trim())))));
+                send(ex, 200, "application/json", json);
+            }
+        } catch (IOException e) {
+            // 클라이언트가 먼저 끊은 경우
+        } finally {
+            ex.close();
+        }
+    }
+
+    private void streamTokens(HttpExchange ex, int tokens, long interval) throws IOException {
+        ex.getResponseHeaders().set("Content-Type", "text/event-stream");
+        ex.sendResponseHeaders(200, 0);
+        OutputStream os = ex.getResponseBody();
+        for (int i = 0; i < tokens; i++) {
+            if (i > 0) sleep(interval);
+            String chunk = mapper.writeValueAsString(Map.of(
+                    "object", "chat.completion.chunk",
+                    "choices", List.of(Map.of("index", 0, "delta", Map.of("content", WORDS[i % WORDS.length])))));
+            os.write(("data: " + chunk + "\n\n").getBytes(StandardCharsets.UTF_8));
+            os.flush();
+        }
+        os.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        os.flush();
+    }
+
+    private static void send(HttpExchange ex, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", contentType);
+        ex.sendResponseHeaders(status, bytes.length);
+        ex.getResponseBody().write(bytes);
+    }
+
+    private static void sleep(long ms) {
+        if (ms <= 0) return;
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Options d = Options.defaults();
+        Map<String, String> a = Args.parse(args);
+        Options o = new Options(
+                Args.intArg(a, "port", d.port()),
+                Args.longArg(a, "first-token-ms", d.firstTokenMs()),
+                Args.doubleArg(a, "tokens-per-sec", d.tokensPerSec()),
+                Args.intArg(a, "tokens", d.tokens()),
+                Args.doubleArg(a, "error-rate", d.errorRate()),
+                Args.intArg(a, "threads", d.threads()));
+        LlmStubServer stub = new LlmStubServer(o).start();
+        Runtime.getRuntime().addShutdownHook(new Thread(stub::stop));
+        System.out.println("LLM stub listening on http://localhost:" + stub.port() + "/v1/chat/completions " + o);
+    }
+}
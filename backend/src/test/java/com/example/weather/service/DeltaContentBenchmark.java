@@ -0,0 +1,97 @@
+package com.example.weather.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LLM 스트림 한 줄(SSE data)에서 토큰 꺼내기 비교: 스트리밍 파서(HuggingFaceClient.deltaContent) vs 이전 방식(줄마다 Map 트리).
+ * 토큰 하나당 시간.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeltaContentBenchmark {
+
+    // OpenAI 호환 서버(Ollama 등)의 chat.completion.chunk 형식
+    private static final String[] LINES = {
+            chunk("{\"role\":\"assistant\",\"content\":\"\"}", "null"),
+            chunk("{\"content\":\"서울은\"}", "null"),
+            chunk("{\"content\":\" 지금\"}", "null"),
+            chunk("{\"content\":\" 맑고\"}", "null"),
+            chunk("{\"content\":\" 기온은\"}", "null"),
+            chunk("{\"content\":\" 18도\"}", "null"),
+            chunk("{\"content\":\"예요.\"}", "null"),
+            chunk("{}", "\"stop\""),
+    };
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private static String chunk(String delta, String finishReason) {
+        return "{\"id\":\"chatcmpl-417\",\"object\":\"chat.completion.chunk\",\"created\":1760745600,"
+                + "\"model\":\"qwen2.5:7b-instruct\",\"system_fingerprint\":\"fp_ollama\","
+                + "\"choices\":[{\"index\":0,\"delta\":" + delta + ",\"finish_reason\":" + finishReason + "}]}";
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        for (String line : LINES) {
+            if (!Objects.equals(HuggingFaceClient.deltaContent(line), legacy(line))) {
+                throw new IllegalStateException("결과가 다름: " + line);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public void streaming(Blackhole bh) throws IOException {
+        for (String line : LINES) bh.consume(HuggingFaceClient.deltaContent(line));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public void legacyMapTree(Blackhole bh) throws IOException {
+        for (String line : LINES) bh.consume(legacy(line));
+    }
+
+    // 요청 전 HuggingFaceClient.streamChat의 줄 처리
+    @SuppressWarnings("unchecked")
+    private String legacy(String data) throws IOException {
+        Map<String, Object> obj = mapper.readValue(data, new TypeReference<>(){});
+        List<Map<String, Object>> choices = (List<Map<String, Object>>) obj.get("choices");
+        if (choices == null || choices.isEmpty()) return null;
+        Map<String, Object> first = choices.get(0);
+        Map<String, Object> delta = (Map<String, Object>) first.get("delta");
+        if (delta != null) {
+            Object content = delta.get("content");
+            return content != null ? String.valueOf(content) : null;
+        }
+        Map<String, Object> message = (Map<String, Object>) first.get("message");
+        if (message != null) {
+            Object content = message.get("content");
+            return content != null ? String.valueOf(content) : null;
+        }
+        Object text = first.get("text");
+        return text != null ? String.valueOf(text) : null;
+    }
+}
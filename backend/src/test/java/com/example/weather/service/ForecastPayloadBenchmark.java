@@ -0,0 +1,74 @@
+package com.example.weather.service;
+
+import com.example.weather.dto.WeatherDtos;
+import com.example.weather.util.KmaGridConverter;
+import com.example.weather.util.KmaPublishSchedule;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 예보 응답 본문 비교: 캐시된 직렬화/gzip 바이트(ForecastPayloadCache 적중) vs 이전 방식(요청마다 DTO 생성, Jackson 직렬화, gzip 압축).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ForecastPayloadBenchmark {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final KmaGridConverter.Grid grid = new KmaGridConverter.Grid(60, 127);
+    private ForecastPayloadCache cache;
+    private KmaClient.Fetched<KmaForecast> fetched;
+
+    @Setup
+    public void setup() {
+        KmaForecast forecast = KmaResponseParser.parseVilage(KmaResponseParserBenchmark.sampleVilage(83));
+        fetched = new KmaClient.Fetched<>(forecast, KmaPublishSchedule.current(KmaPublishSchedule.Kind.VILAGE), false);
+        cache = new ForecastPayloadCache(mapper, 16L * 1024 * 1024);
+        cache.get("kma", grid, fetched, false, () -> toResponse(fetched));
+    }
+
+    @Benchmark
+    public ForecastPayloadCache.Payload cached() {
+        return cache.get("kma", grid, fetched, false, () -> toResponse(fetched));
+    }
+
+    @Benchmark
+    public byte[] legacySerializeAndGzip() throws IOException {
+        byte[] json = mapper.writeValueAsBytes(toResponse(fetched));
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(json);
+        }
+        return out.toByteArray();
+    }
+
+    // WeatherService.toForecast와 같은 변환
+    private static WeatherDtos.ForecastResponse toResponse(KmaClient.Fetched<KmaForecast> fetched) {
+        KmaForecast f = fetched.data();
+        List<WeatherDtos.ForecastEntry> items = new ArrayList<>(f.size());
+        for (int i = 0; i < f.size(); i++) {
+            items.add(new WeatherDtos.ForecastEntry(f.dateTime(i), f.temperature(i), f.precipitation(i),
+                    KmaClient.skyCodeToText(f.skyCode(i)), f.pop(i), f.humidity(i), f.windSpeed(i), f.epochHour(i)));
+        }
+        return new WeatherDtos.ForecastResponse(items, fetched.base().date() + fetched.base().time(), fetched.stale());
+    }
+}
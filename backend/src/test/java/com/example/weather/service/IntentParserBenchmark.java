@@ -0,0 +1,97 @@
+package com.example.weather.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 챗 메시지 해석 비교: Aho-Corasick 한 번 훑기(IntentParser.analyze) vs 이전 방식
+ * (지명 트라이 훑기 + containsAny 두 번 + parseIntent의 contains 사슬). 메시지 하나당 시간.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntentParserBenchmark {
+
+    private static final String[] MESSAGES = {
+            "서울 지금 날씨 알려줘",
+            "내일 오후 부산 해운대구 비 와?",
+            "모레 아침에 수원 기온은 어때?",
+            "이번 주 제주 날씨 예보 알려줘",
+            "우산 챙겨야 할까?",
+            "What's the weather in Daejeon tomorrow morning?",
+            "경기 광주 오늘 저녁에 바람 많이 불어?",
+            "강원도 강릉시 주간 예보 부탁해요. 주말에 여행 가려고 하는데 밤에 추울까요?",
+    };
+
+    @Setup
+    public void setup() {
+        // 두 구현이 같은 결과를 내는 메시지로만 비교한다
+        for (String m : MESSAGES) {
+            IntentParser.Analysis a = IntentParser.analyze(null, m);
+            Legacy l = legacy(m);
+            if (!Objects.equals(a.city(), l.city) || a.wantForecast() != l.wantForecast || a.wantCurrent() != l.wantCurrent
+                    || a.intent().dayOffset != l.dayOffset || !a.intent().window.equals(l.window)) {
+                throw new IllegalStateException("결과가 다름: " + m);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public void ahoCorasick(Blackhole bh) {
+        for (String m : MESSAGES) bh.consume(IntentParser.analyze(null, m));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public void legacyScans(Blackhole bh) {
+        for (String m : MESSAGES) bh.consume(legacy(m));
+    }
+
+    private record Legacy(String city, boolean wantForecast, boolean wantCurrent, int dayOffset, String window) {}
+
+    // 요청 전 ChatService가 메시지마다 하던 호출 순서
+    private static Legacy legacy(String text) {
+        boolean wantForecast = containsAny(text, "예보", "내일", "모레", "주간", "forecast");
+        boolean wantCurrent = containsAny(text, "현재", "지금", "오늘", "now", "current");
+        LegacyGazetteer.Entry e = LegacyGazetteer.get().lookup(text);
+        String city = e != null ? e.displayName() : null;
+
+        String t = text.toLowerCase(Locale.ROOT);
+        int dayOffset = 0;
+        String window = "any";
+        if (t.contains("모레")) dayOffset = 2;
+        else if (t.contains("내일") || t.contains("tomorrow")) dayOffset = 1;
+        else if (t.contains("주간") || t.contains("이번 주") || t.contains("한 주")) dayOffset = 1;
+        if (t.contains("오전") || t.contains("morning")) window = "morning";
+        else if (t.contains("오후") || t.contains("afternoon")) window = "afternoon";
+        else if (t.contains("저녁") || t.contains("evening")) window = "evening";
+        else if (t.contains("밤") || t.contains("night")) window = "night";
+        return new Legacy(city, wantForecast, wantCurrent, dayOffset, window);
+    }
+
+    private static boolean containsAny(String text, String... keys) {
+        String t = text.toLowerCase(Locale.ROOT);
+        for (String k : keys) {
+            if (t.contains(k.toLowerCase(Locale.ROOT))) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.weather.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 단기예보 응답 파싱 비교: 스트리밍 파서(KmaResponseParser) vs 이전 방식(Map 트리로 읽은 뒤 예보시각별 Map으로 묶기).
+ * 실행 방법은 README "마이크로벤치마크" 참고.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KmaResponseParserBenchmark {
+
+    private static final String[] CATEGORIES = {
+            "TMP", "UUU", "VVV", "VEC", "WSD", "SKY", "PTY", "POP", "WAV", "PCP", "REH", "SNO"};
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private byte[] body;
+
+    @Setup
+    public void setup() {
+        // numOfRows=1000 한 페이지 분량(12개 항목 x 83시간)
+        body = sampleVilage(83);
+    }
+
+    @Benchmark
+    public KmaForecast streaming() {
+        return KmaResponseParser.parseVilage(body);
+    }
+
+    @Benchmark
+    public List<Map<String, String>> legacyMapTree() throws IOException {
+        return legacyParse(mapper, body);
+    }
+
+    /** 기상청 getVilageFcst 형식의 합성 응답 */
+    static byte[] sampleVilage(int hours) {
+        DateTimeFormatter date = DateTimeFormatter.ofPattern("yyyyMMdd");
+        DateTimeFormatter time = DateTimeFormatter.ofPattern("HHmm");
+        LocalDateTime start = LocalDateTime.of(2026, 10, 18, 6, 0);
+        StringBuilder sb = new StringBuilder(hours * CATEGORIES.length * 128);
+        sb.append("{\"response\":{\"header\":{\"resultCode\":\"00\",\"resultMsg\":\"NORMAL_SERVICE\"},")
+                .append("\"body\":{\"dataType\":\"JSON\",\"items\":{\"item\":[");
+        for (int h = 0; h < hours; h++) {
+            LocalDateTime t = start.plusHours(h);
+            for (String category : CATEGORIES) {
+                if (sb.charAt(sb.length() - 1) == '}') sb.append(',');
+                sb.append("{\"baseDate\":\"20261018\",\"baseTime\":\"0500\",\"category\":\"").append(category)
+                        .append("\",\"fcstDate\":\"").append(date.format(t))
+                        .append("\",\"fcstTime\":\"").append(time.format(t))
+                        .append("\",\"fcstValue\":\"").append(sampleValue(category, h))
+                        .append("\",\"nx\":60,\"ny\":127}");
+            }
+        }
+        sb.append("]},\"pageNo\":1,\"numOfRows\":1000,\"totalCount\":").append(hours * CATEGORIES.length).append("}}}");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String sampleValue(String category, int h) {
+        return switch (category) {
+            case "TMP" -> String.valueOf(10 + h % 12);
+            case "SKY" -> String.valueOf(1 + h % 4);
+            case "PTY" -> String.valueOf(h % 5 == 0 ? 1 : 0);
+            case "POP", "REH" -> String.valueOf(h * 7 % 100);
+            case "PCP" -> h % 5 == 0 ? "1.0mm" : "강수없음";
+            case "SNO" -> "적설없음";
+            default -> String.valueOf(h % 10 * 0.7);
+        };
+    }
+
+    // 요청 전 KmaClient.getVilageForecast의 파싱 부분(RestClient의 body(Map.class) 포함)
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, String>> legacyParse(ObjectMapper mapper, byte[] bytes) throws IOException {
+        Map<?, ?> body = mapper.readValue(bytes, Map.class);
+        Map<String, Map<String, String>> grouped = new LinkedHashMap<>();
+        Map<?, ?> response = (Map<?, ?>) body.get("response");
+        Map<?, ?> header = (Map<?, ?>) response.get("header");
+        Object resultCode = header.get("resultCode");
+        if (resultCode != null && !"00".equals(resultCode.toString())) {
+            throw new RuntimeException("KMA 오류: code=" + resultCode + ", msg=" + header.get("resultMsg"));
+        }
+        Map<?, ?> bodyObj = (Map<?, ?>) response.get("body");
+        Map<?, ?> items = (Map<?, ?>) bodyObj.get("items");
+        List<Map<String, Object>> list = (List<Map<String, Object>>) items.get("item");
+        if (list != null) {
+            for (Map<String, Object> item : list) {
+                String dateTime = String.valueOf(item.get("fcstDate")) + item.get("fcstTime");
+                grouped.computeIfAbsent(dateTime, k -> new HashMap<>())
+                        .put(String.valueOf(item.get("category")), String.valueOf(item.get("fcstValue")));
+            }
+        }
+        List<Map<String, String>> out = new ArrayList<>();
+        for (var e : grouped.entrySet()) {
+            Map<String, String> m = new HashMap<>(e.getValue());
+            m.put("dateTime", e.getKey());
+            out.add(m);
+        }
+        return out;
+    }
+}
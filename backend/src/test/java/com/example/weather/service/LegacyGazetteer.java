@@ -0,0 +1,331 @@
+package com.example.weather.service;
+
+import com.example.weather.util.KmaGridConverter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 벤치마크 비교용: Aho-Corasick 도입 전 Gazetteer(트라이를 문장 위치마다 다시 훑는 방식)를 그대로 옮긴 것.
+ * 자동완성(complete)은 비교 대상이 아니라 뺐다.
+ */
+final class LegacyGazetteer {
+
+    private static final String RESOURCE = "/geo/kr-regions.tsv";
+
+    // 일상어와 겹치는 줄임말: 단어 끝(공백/조사)이 확인될 때만 지명으로 본다
+    private static final Set<String> COMMON_WORDS = Set.of(
+            "진도", "영광", "장수", "부여", "동해", "남해", "고성", "인제", "보은", "광산", "삼성", "정자",
+            "구리", "양주", "공주", "예산", "음성", "완주", "무안", "경주", "상주", "영양", "고령", "진주");
+    private static final String PARTICLES = "은는이가을를에의도쪽날";
+
+    private static final String[] SUFFIXES_KO = {"특별자치시", "특별자치도", "특별시", "광역시", "도", "시", "군", "구", "읍", "면", "동"};
+    private static final String[] SUFFIXES_EN = {"-si", "-gun", "-gu", "-do", "-eup", "-myeon", "-dong"};
+
+    // 별칭 매칭 조건
+    private static final int MODE_ANY = 0;        // 문장 어디서든
+    private static final int MODE_WORD_START = 1; // 단어 시작에서만
+    private static final int MODE_WORD = 2;       // 단어 시작 + 끝(공백/조사)
+    private static final int MODE_ASCII = 3;      // 로마자: 앞뒤가 영숫자가 아닐 때
+
+    public record Entry(int id, int level, String name, String roman, double lat, double lon,
+                        KmaGridConverter.Grid grid, Entry parent, String displayName) {
+        public boolean isWithin(Entry ancestor) {
+            for (Entry p = parent; p != null; p = p.parent) {
+                if (p == ancestor) return true;
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+
+    private static final class Node {
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_NODES = new Node[0];
+        private static final int[] NO_TERMS = new int[0];
+
+        char[] keys = NO_KEYS;
+        Node[] next = NO_NODES;
+        int[] terms = NO_TERMS; // (entry id << 2) | mode
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? next[i] : null;
+        }
+
+        Node childOrCreate(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0) return next[i];
+            int at = -i - 1;
+            char[] k = new char[keys.length + 1];
+            Node[] n = new Node[next.length + 1];
+            System.arraycopy(keys, 0, k, 0, at);
+            System.arraycopy(next, 0, n, 0, at);
+            k[at] = c;
+            n[at] = new Node();
+            System.arraycopy(keys, at, k, at + 1, keys.length - at);
+            System.arraycopy(next, at, n, at + 1, next.length - at);
+            keys = k;
+            next = n;
+            return n[at];
+        }
+
+        void addTerm(int term) {
+            for (int t : terms) {
+                if ((t >>> 2) == (term >>> 2)) return; // 같은 항목은 먼저 등록된(느슨한) 조건 유지
+            }
+            terms = Arrays.copyOf(terms, terms.length + 1);
+            terms[terms.length - 1] = term;
+        }
+    }
+
+    private record Match(Entry entry, int position) {}
+
+    private final List<Entry> entries;
+    private final Node root;
+
+    private LegacyGazetteer(List<Entry> entries, Node root) {
+        this.entries = entries;
+        this.root = root;
+    }
+
+    static LegacyGazetteer get() {
+        return Holder.INSTANCE;
+    }
+
+    private static final class Holder {
+        static final LegacyGazetteer INSTANCE = load();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 문장(또는 지명 문자열)에서 언급된 지역 중 가장 구체적인 하나를 고른다.
+     * 상위 지역이 함께 언급되면(부산 중구, 경기 광주) 그 하위 지역을 우선하고,
+     * 그 외에는 먼저 나온 것 → 상위 행정구역 → 사전 순서로 고른다. 없으면 null.
+     */
+    public Entry lookup(String text) {
+        if (text == null || text.isBlank()) return null;
+        List<Match> matches = scan(normalize(text));
+        if (matches.isEmpty()) return null;
+
+        Map<Entry, Integer> firstPos = new LinkedHashMap<>();
+        for (Match m : matches) firstPos.putIfAbsent(m.entry, m.position);
+        Set<Entry> mentioned = firstPos.keySet();
+
+        Entry best = null;
+        int bestAncestors = -1, bestPos = 0;
+        for (Map.Entry<Entry, Integer> c : firstPos.entrySet()) {
+            Entry e = c.getKey();
+            if (hasMentionedDescendant(e, mentioned)) continue;
+            int ancestors = 0;
+            for (Entry p = e.parent; p != null; p = p.parent) {
+                if (mentioned.contains(p)) ancestors++;
+            }
+            int pos = c.getValue();
+            if (best == null
+                    || ancestors > bestAncestors
+                    || (ancestors == bestAncestors && (pos < bestPos
+                        || (pos == bestPos && (e.level < best.level
+                            || (e.level == best.level && e.id < best.id)))))) {
+                best = e;
+                bestAncestors = ancestors;
+                bestPos = pos;
+            }
+        }
+        return best;
+    }
+
+    // 왼쪽부터 가장 긴 별칭을 찾고, 찾은 구간 다음부터 이어서 훑는다(강서구 안의 '서구' 같은 겹침 방지)
+    private List<Match> scan(String t) {
+        List<Match> out = new ArrayList<>(2);
+        int i = 0;
+        while (i < t.length()) {
+            Node n = root;
+            int bestEnd = -1;
+            int[] bestTerms = null;
+            for (int j = i; j < t.length(); j++) {
+                n = n.child(t.charAt(j));
+                if (n == null) break;
+                if (n.terms.length == 0) continue;
+                int[] ok = acceptable(n.terms, t, i, j + 1);
+                if (ok.length > 0) {
+                    bestEnd = j + 1;
+                    bestTerms = ok;
+                }
+            }
+            if (bestTerms == null) {
+                i++;
+                continue;
+            }
+            for (int term : bestTerms) out.add(new Match(entries.get(term >>> 2), i));
+            i = bestEnd;
+        }
+        return out;
+    }
+
+    private static int[] acceptable(int[] terms, String t, int start, int end) {
+        int count = 0;
+        int[] out = new int[terms.length];
+        for (int term : terms) {
+            if (accepts(term & 3, t, start, end)) out[count++] = term;
+        }
+        return count == terms.length ? terms : Arrays.copyOf(out, count);
+    }
+
+    private static boolean accepts(int mode, String t, int start, int end) {
+        boolean wordStart = start == 0 || !Character.isLetterOrDigit(t.charAt(start - 1));
+        boolean wordEnd = end == t.length() || !Character.isLetterOrDigit(t.charAt(end));
+        return switch (mode) {
+            case MODE_WORD_START -> wordStart;
+            case MODE_WORD -> wordStart && (wordEnd || PARTICLES.indexOf(t.charAt(end)) >= 0);
+            case MODE_ASCII -> wordStart && wordEnd;
+            default -> true;
+        };
+    }
+
+    private static boolean hasMentionedDescendant(Entry e, Set<Entry> mentioned) {
+        for (Entry other : mentioned) {
+            if (other != e && other.isWithin(e)) return true;
+        }
+        return false;
+    }
+
+    private static String normalize(String s) {
+        return s.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // ---- 로딩 ----
+
+    private record Row(int level, String name, String roman, double lat, double lon, List<String> aliases, int parent) {}
+
+    private static LegacyGazetteer load() {
+        List<Row> rows = readRows();
+
+        // 줄임말이 전국에서 유일한 시군구는 줄임말로, 아니면 상위 지역을 붙여 표시한다(부산 중구, 경기 광주시)
+        Map<String, Integer> shortCount = new HashMap<>();
+        for (Row r : rows) shortCount.merge(shortKo(r.name), 1, Integer::sum);
+
+        List<Entry> entries = new ArrayList<>(rows.size());
+        for (int id = 0; id < rows.size(); id++) {
+            Row r = rows.get(id);
+            Entry parent = r.parent >= 0 ? entries.get(r.parent) : null;
+            String shortName = shortKo(r.name);
+            String display;
+            if (r.level == 1) {
+                display = r.aliases.isEmpty() ? shortName : r.aliases.get(0);
+            } else if (r.level == 2 && shortName.length() >= 2 && shortCount.get(shortName) == 1) {
+                display = shortName;
+            } else {
+                display = parent.displayName + " " + r.name;
+            }
+            entries.add(new Entry(id, r.level, r.name, r.roman, r.lat, r.lon,
+                    KmaGridConverter.toGrid(r.lat, r.lon), parent, display));
+        }
+
+        Node root = new Node();
+        for (Entry e : entries) {
+            Row r = rows.get(e.id);
+            // 두 글자 시군구(중구, 동구)는 단어 시작에서만: '이동구간' 같은 오탐 방지
+            insert(root, e.name, e.id, e.level > 1 && e.name.length() <= 2 ? MODE_WORD_START : MODE_ANY);
+            for (String a : r.aliases) insert(root, a, e.id, MODE_ANY);
+            String shortName = shortKo(e.name);
+            if (!shortName.equals(e.name) && !shortName.isEmpty()) {
+                int mode;
+                if (COMMON_WORDS.contains(shortName)) mode = MODE_WORD;
+                else if (e.level == 1 || shortName.length() > 2) mode = MODE_ANY;
+                else mode = MODE_WORD_START;
+                insert(root, shortName, e.id, mode);
+            }
+            if (!e.roman.isEmpty()) {
+                String roman = e.roman.toLowerCase(Locale.ROOT);
+                insert(root, roman, e.id, MODE_ASCII);
+                insert(root, roman.replace("-", ""), e.id, MODE_ASCII);
+                String shortRoman = shortEn(roman);
+                if (shortRoman.length() >= 3) insert(root, shortRoman, e.id, MODE_ASCII);
+            }
+        }
+        return new LegacyGazetteer(Collections.unmodifiableList(entries), root);
+    }
+
+    private static List<Row> readRows() {
+        InputStream in = LegacyGazetteer.class.getResourceAsStream(RESOURCE);
+        if (in == null) throw new IllegalStateException("지명 사전 파일이 없습니다: " + RESOURCE);
+        List<Row> rows = new ArrayList<>(512);
+        int[] lastAtLevel = {-1, -1, -1, -1, -1};
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNo = 0;
+            while ((line = br.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank() || line.startsWith("#")) continue;
+                String[] c = line.split("\t");
+                if (c.length < 5) throw new IllegalStateException("지명 사전 형식 오류(" + lineNo + "행): " + line);
+                int level = Integer.parseInt(c[0].trim());
+                if (level < 1 || level > 4) throw new IllegalStateException("지명 사전 단계 오류(" + lineNo + "행): " + line);
+                // 상위 지역은 파일 순서상 바로 앞의 더 높은 단계 항목
+                int parent = -1;
+                for (int l = level - 1; l >= 1 && parent < 0; l--) parent = lastAtLevel[l];
+                if (level > 1 && parent < 0) throw new IllegalStateException("상위 지역이 없는 항목(" + lineNo + "행): " + line);
+                List<String> aliases = new ArrayList<>();
+                if (c.length > 5 && !c[5].isBlank()) {
+                    for (String a : c[5].split(",")) {
+                        if (!a.isBlank()) aliases.add(a.trim());
+                    }
+                }
+                rows.add(new Row(level, c[1].trim(), c[2].trim(),
+                        Double.parseDouble(c[3].trim()), Double.parseDouble(c[4].trim()), aliases, parent));
+                lastAtLevel[level] = rows.size() - 1;
+                for (int l = level + 1; l < lastAtLevel.length; l++) lastAtLevel[l] = -1;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return rows;
+    }
+
+    private static void insert(Node root, String alias, int id, int mode) {
+        String a = normalize(alias);
+        if (a.isEmpty()) return;
+        Node n = root;
+        for (int i = 0; i < a.length(); i++) n = n.childOrCreate(a.charAt(i));
+        n.addTerm((id << 2) | mode);
+    }
+
+    // 수원시→수원, 서울특별시→서울. 남는 이름이 한 글자면(중구) 그대로 둔다
+    private static String shortKo(String name) {
+        for (String s : SUFFIXES_KO) {
+            if (name.length() > s.length() && name.endsWith(s)) {
+                String stripped = name.substring(0, name.length() - s.length());
+                return stripped.length() >= 2 ? stripped : name;
+            }
+        }
+        return name;
+    }
+
+    private static String shortEn(String roman) {
+        for (String s : SUFFIXES_EN) {
+            if (roman.endsWith(s)) return roman.substring(0, roman.length() - s.length());
+        }
+        return roman;
+    }
+}
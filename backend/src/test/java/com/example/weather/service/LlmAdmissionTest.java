@@ -0,0 +1,191 @@
+package com.example.weather.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LlmAdmissionTest {
+
+    private static final long WAIT_MS = 10_000;
+
+    private final ExecutorService pool = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void admitsUpToLimitAndReleasesOnClose() {
+        LlmAdmission admission = new LlmAdmission(2, 4, 1000);
+        LlmAdmission.Permit a = admission.acquire(LlmAdmission.Priority.NORMAL);
+        LlmAdmission.Permit b = admission.acquire(LlmAdmission.Priority.NORMAL);
+        assertThat(admission.inFlight()).isEqualTo(2);
+
+        a.close();
+        a.close(); // 두 번 닫아도 한 자리만 반납
+        assertThat(admission.inFlight()).isEqualTo(1);
+        b.close();
+        assertThat(admission.inFlight()).isZero();
+        assertThat(admission.admittedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsImmediatelyWithoutWaitingWhenFull() {
+        LlmAdmission admission = new LlmAdmission(1, 4, 1000);
+        try (LlmAdmission.Permit held = admission.acquire(LlmAdmission.Priority.NORMAL)) {
+            assertThatThrownBy(() -> admission.acquire(LlmAdmission.Priority.SHORT, 0))
+                    .isInstanceOf(LlmAdmission.Rejected.class);
+            assertThat(admission.rejectedFullCount()).isEqualTo(1);
+            assertThat(admission.queued()).isZero();
+        }
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() throws Exception {
+        LlmAdmission admission = new LlmAdmission(1, 1, WAIT_MS);
+        LlmAdmission.Permit held = admission.acquire(LlmAdmission.Priority.NORMAL);
+        Future<?> queued = pool.submit(() -> admission.acquire(LlmAdmission.Priority.NORMAL).close());
+        await(() -> admission.queued() == 1);
+
+        assertThatThrownBy(() -> admission.acquire(LlmAdmission.Priority.NORMAL))
+                .isInstanceOf(LlmAdmission.Rejected.class)
+                .hasMessageContaining("가득");
+        assertThat(admission.rejectedFullCount()).isEqualTo(1);
+
+        held.close();
+        queued.get(WAIT_MS, TimeUnit.MILLISECONDS);
+        assertThat(admission.inFlight()).isZero();
+    }
+
+    @Test
+    void rejectsAfterQueueTimeout() {
+        LlmAdmission admission = new LlmAdmission(1, 4, 50);
+        try (LlmAdmission.Permit held = admission.acquire(LlmAdmission.Priority.NORMAL)) {
+            assertThatThrownBy(() -> admission.acquire(LlmAdmission.Priority.NORMAL))
+                    .isInstanceOf(LlmAdmission.Rejected.class);
+            assertThat(admission.rejectedTimeoutCount()).isEqualTo(1);
+            assertThat(admission.queued()).isZero();
+        }
+    }
+
+    @Test
+    void grantsFreedSlotsByPriorityThenArrival() throws Exception {
+        LlmAdmission admission = new LlmAdmission(1, 8, WAIT_MS);
+        LlmAdmission.Permit held = admission.acquire(LlmAdmission.Priority.NORMAL);
+        List<String> order = new CopyOnWriteArrayList<>();
+        Future<?> background = enqueue(admission, LlmAdmission.Priority.BACKGROUND, "background", order, 1);
+        Future<?> normal1 = enqueue(admission, LlmAdmission.Priority.NORMAL, "normal-1", order, 2);
+        Future<?> normal2 = enqueue(admission, LlmAdmission.Priority.NORMAL, "normal-2", order, 3);
+        Future<?> shortQ = enqueue(admission, LlmAdmission.Priority.SHORT, "short", order, 4);
+
+        held.close();
+        for (Future<?> f : List.of(background, normal1, normal2, shortQ)) f.get(WAIT_MS, TimeUnit.MILLISECONDS);
+        assertThat(order).containsExactly("short", "normal-1", "normal-2", "background");
+        assertThat(admission.inFlight()).isZero();
+    }
+
+    @Test
+    void higherPriorityEvictsLowestWaiterWhenQueueIsFull() throws Exception {
+        LlmAdmission admission = new LlmAdmission(1, 1, WAIT_MS);
+        LlmAdmission.Permit held = admission.acquire(LlmAdmission.Priority.NORMAL);
+        Future<?> background = pool.submit(() -> admission.acquire(LlmAdmission.Priority.BACKGROUND).close());
+        await(() -> admission.queued() == 1);
+        Future<?> shortQ = pool.submit(() -> admission.acquire(LlmAdmission.Priority.SHORT).close());
+
+        assertThatThrownBy(() -> background.get(WAIT_MS, TimeUnit.MILLISECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(LlmAdmission.Rejected.class);
+        assertThat(admission.queued()).isEqualTo(1);
+
+        held.close();
+        shortQ.get(WAIT_MS, TimeUnit.MILLISECONDS);
+        assertThat(admission.inFlight()).isZero();
+    }
+
+    @Test
+    void backgroundLeavesOneSlotForConversations() {
+        LlmAdmission admission = new LlmAdmission(2, 4, 1000);
+        try (LlmAdmission.Permit first = admission.acquire(LlmAdmission.Priority.NORMAL)) {
+            assertThatThrownBy(() -> admission.acquire(LlmAdmission.Priority.BACKGROUND, 0))
+                    .isInstanceOf(LlmAdmission.Rejected.class);
+            admission.acquire(LlmAdmission.Priority.SHORT, 0).close();
+        }
+        admission.acquire(LlmAdmission.Priority.BACKGROUND, 0).close();
+        assertThat(admission.inFlight()).isZero();
+    }
+
+    // 대기 중 취소(인터럽트)되면 대기열에서 빠지고, 나중에 풀린 자리를 가져가지 않는다
+    @Test
+    void cancelledWaiterLeavesQueueAndDoesNotLeakSlot() throws Exception {
+        LlmAdmission admission = new LlmAdmission(1, 4, WAIT_MS);
+        LlmAdmission.Permit held = admission.acquire(LlmAdmission.Priority.NORMAL);
+        Future<?> waiter = pool.submit(() -> admission.acquire(LlmAdmission.Priority.NORMAL).close());
+        await(() -> admission.queued() == 1);
+
+        waiter.cancel(true);
+        await(() -> admission.queued() == 0);
+        assertThat(admission.inFlight()).isEqualTo(1);
+
+        held.close();
+        assertThat(admission.inFlight()).isZero();
+        admission.acquire(LlmAdmission.Priority.NORMAL, 0).close();
+    }
+
+    // 이미 인터럽트된 스레드는 기다리지 않고 거절되며, 풀린 자리는 다음 대기자가 받는다
+    @Test
+    void interruptedCallerIsRejectedAndSlotGoesToNextWaiter() throws Exception {
+        LlmAdmission admission = new LlmAdmission(1, 4, WAIT_MS);
+        LlmAdmission.Permit held = admission.acquire(LlmAdmission.Priority.NORMAL);
+        boolean[] rejected = new boolean[1];
+        Thread interrupted = new Thread(() -> {
+            Thread.currentThread().interrupt();
+            try {
+                admission.acquire(LlmAdmission.Priority.SHORT).close();
+            } catch (LlmAdmission.Rejected e) {
+                rejected[0] = true;
+            }
+        });
+        interrupted.start();
+        interrupted.join(WAIT_MS);
+        assertThat(rejected[0]).isTrue();
+        assertThat(admission.queued()).isZero();
+
+        Future<?> next = pool.submit(() -> admission.acquire(LlmAdmission.Priority.NORMAL).close());
+        await(() -> admission.queued() == 1);
+        held.close();
+        next.get(WAIT_MS, TimeUnit.MILLISECONDS);
+        assertThat(admission.inFlight()).isZero();
+    }
+
+    // 자리를 얻으면 이름을 남기고 바로 반납. 도착 순서를 고정하려고 이전 대기자가 줄에 선 뒤 제출한다
+    private Future<?> enqueue(LlmAdmission admission, LlmAdmission.Priority priority, String name,
+                              List<String> order, int expectedQueued) {
+        Future<?> f = pool.submit(() -> {
+            try (LlmAdmission.Permit p = admission.acquire(priority)) {
+                order.add(name);
+            }
+        });
+        await(() -> admission.queued() == expectedQueued);
+        return f;
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WAIT_MS);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) throw new AssertionError("조건을 기다리다 시간이 초과되었습니다.");
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.weather.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextSanitizerTest {
+
+    private static final String[] SAMPLES = {
+            "서울은 지금 맑아요.",
+            "  앞뒤 공백과\t탭,\r\n줄바꿈  ",
+            "기온 == 18°C, 강수확률 => 20%",
+            "===> 참고 데이터 <=== 내일은 비",
+            "a==b===c>>d>>>e=>f",
+            "끝에 짧은 연속 =>",
+            "=\n==\n===",
+            "   ",
+    };
+
+    @Test
+    void sanitizeAppliesRules() {
+        assertThat(TextSanitizer.sanitize("  기온 == 18°C,\t\t하늘 >>> 맑음 \n")).isEqualTo("기온 = 18°C, 하늘 맑음");
+        assertThat(TextSanitizer.sanitize("a => b")).isEqualTo("a => b");
+        assertThat(TextSanitizer.sanitize(null)).isNull();
+    }
+
+    @Test
+    void sanitizeMatchesRegexRules() {
+        for (String s : SAMPLES) {
+            assertThat(TextSanitizer.sanitize(s)).as(s).isEqualTo(regex(s));
+        }
+    }
+
+    @Test
+    void incrementalHoldsRunSplitAcrossChunks() {
+        TextSanitizer.Incremental in = TextSanitizer.incremental();
+        assertThat(in.accept("비가 =")).isEqualTo("비가");
+        assertThat(in.accept("=")).isEmpty();
+        assertThat(in.accept(">")).isEmpty();
+        assertThat(in.accept(" 와요")).isEqualTo(" 와요");
+        assertThat(in.finish()).isEmpty();
+    }
+
+    @Test
+    void incrementalCollapsesDoubleEqualsSplitAcrossChunks() {
+        TextSanitizer.Incremental in = TextSanitizer.incremental();
+        assertThat(in.accept("a=")).isEqualTo("a");
+        assertThat(in.accept("=b")).isEqualTo("=b");
+    }
+
+    @Test
+    void incrementalFlushesShortRunAndDropsTrailingSpaceAtFinish() {
+        TextSanitizer.Incremental in = TextSanitizer.incremental();
+        assertThat(in.accept("끝")).isEqualTo("끝");
+        assertThat(in.accept(" >")).isEmpty();
+        assertThat(in.finish()).isEqualTo(" >");
+
+        TextSanitizer.Incremental trailing = TextSanitizer.incremental();
+        assertThat(trailing.accept("끝  \n")).isEqualTo("끝");
+        assertThat(trailing.finish()).isEmpty();
+    }
+
+    // 청크를 어디서 나누든(두 군데까지) 이어 붙인 결과는 전체 sanitize와 같아야 한다
+    @Test
+    void incrementalMatchesSanitizeForEverySplit() {
+        for (String s : SAMPLES) {
+            String expected = TextSanitizer.sanitize(s);
+            for (int i = 0; i <= s.length(); i++) {
+                for (int j = i; j <= s.length(); j++) {
+                    TextSanitizer.Incremental in = TextSanitizer.incremental();
+                    String out = in.accept(s.substring(0, i)) + in.accept(s.substring(i, j))
+                            + in.accept(s.substring(j)) + in.finish();
+                    assertThat(out).as("%s split at %d,%d", s, i, j).isEqualTo(expected);
+                }
+            }
+        }
+    }
+
+    // 한 번 훑기로 바꾸기 전의 정규식 구현
+    private static String regex(String s) {
+        String out = s.replace('\r', ' ').replace('\t', ' ');
+        out = out.replaceAll("[\u0000-\u001F]", " ");
+        out = out.replaceAll("[=>]{3,}", "");
+        out = out.replaceAll("={2,}", "=");
+        return out.replaceAll("\\s+", " ").trim();
+    }
+}